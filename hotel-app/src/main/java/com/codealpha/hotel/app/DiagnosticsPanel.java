@@ -0,0 +1,119 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.HotelMetrics;
+import com.codealpha.hotel.LatencyHistogram;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+// Live per-operation latency table over a Hotel's metrics, refreshed once a second on the event
+// thread. Also feeds a one-line booking summary to a status bar label.
+class DiagnosticsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final HotelMetrics.Operation[] OPERATIONS = HotelMetrics.Operation.values();
+    private static final String[] COLUMNS = { "Operation", "Count", "Failures", "p50", "p99", "Max", "Total" };
+
+    private transient HotelMetrics metrics;
+    private final JLabel summaryLabel;
+    private final JLabel bytesLabel = new JLabel();
+    private final JCheckBox enabledBox = new JCheckBox("Enabled");
+    private final AbstractTableModel model = new AbstractTableModel() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int getRowCount() { return metrics == null ? 0 : OPERATIONS.length; }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            HotelMetrics.Operation op = OPERATIONS[row];
+            LatencyHistogram histogram = metrics.latency(op);
+            switch (column) {
+                case 0: return op.displayName();
+                case 1: return histogram.count();
+                case 2: return metrics.failures(op);
+                case 3: return formatNanos(histogram.percentileNanos(50));
+                case 4: return formatNanos(histogram.percentileNanos(99));
+                case 5: return formatNanos(histogram.maxNanos());
+                default: return formatNanos(histogram.totalNanos());
+            }
+        }
+    };
+    private final Timer timer = new Timer(1000, e -> refresh());
+
+    DiagnosticsPanel(JLabel summaryLabel) {
+        super(new BorderLayout());
+        this.summaryLabel = summaryLabel;
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 2));
+        JButton resetBtn = new JButton("Reset");
+        enabledBox.setEnabled(false);
+        resetBtn.addActionListener(e -> {
+            if (metrics != null) {
+                metrics.reset();
+                refresh();
+            }
+        });
+        enabledBox.addActionListener(e -> {
+            if (metrics != null) {
+                metrics.setEnabled(enabledBox.isSelected());
+            }
+        });
+        controls.add(enabledBox);
+        controls.add(resetBtn);
+        controls.add(bytesLabel);
+        add(controls, BorderLayout.NORTH);
+        add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
+    }
+
+    void attach(HotelMetrics metrics) {
+        this.metrics = metrics;
+        enabledBox.setSelected(metrics.isEnabled());
+        enabledBox.setEnabled(true);
+        model.fireTableDataChanged();
+        refresh();
+        timer.start();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void refresh() {
+        if (metrics == null) {
+            return;
+        }
+        enabledBox.setSelected(metrics.isEnabled());
+        bytesLabel.setText(String.format("Persisted: %,d KB", metrics.bytesPersisted() >> 10));
+        model.fireTableRowsUpdated(0, OPERATIONS.length - 1);
+        LatencyHistogram book = metrics.latency(HotelMetrics.Operation.BOOK);
+        summaryLabel.setText(!metrics.isEnabled() ? "Metrics off" : book.count() == 0 ? "" : "Book p50 "
+            + formatNanos(book.percentileNanos(50)) + " / p99 " + formatNanos(book.percentileNanos(99)));
+    }
+
+    static String formatNanos(long nanos) {
+        if (nanos < 1000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.2f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,174 @@
+package com.codealpha.hotel.app;
+
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+// Type-ahead for a guest name field: each edit asks the hotel for guests whose names start with the text
+// and lists them under the field. Up/Down pick one, Enter or a click takes it, Escape closes the list.
+// Answers arrive out of order when typing is fast, so each carries the edit it answers and stale ones are
+// dropped.
+class GuestNameSuggester {
+    private static final int LIMIT = 10;
+
+    private final JTextField field;
+    private final HotelService service;
+    private final Consumer<String> onChosen;
+    private final DefaultListModel<String> names = new DefaultListModel<>();
+    private final JList<String> list = new JList<>(names);
+    private final JPopupMenu popup = new JPopupMenu();
+    private int edits;
+    private boolean choosing;
+
+    // onChosen runs on the event thread after a suggestion has been put in the field
+    GuestNameSuggester(JTextField field, HotelService service, Consumer<String> onChosen) {
+        this.field = field;
+        this.service = service;
+        this.onChosen = onChosen;
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.setFont(field.getFont());
+        JScrollPane scroll = new JScrollPane(list);
+        scroll.setBorder(null);
+        popup.add(scroll);
+        popup.setFocusable(false);
+
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { query(); }
+            public void removeUpdate(DocumentEvent e) { query(); }
+            public void changedUpdate(DocumentEvent e) { }
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!popup.isVisible()) {
+                    return;
+                }
+                int selected = list.getSelectedIndex();
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_DOWN:
+                        select(Math.min(selected + 1, names.size() - 1));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_UP:
+                        select(Math.max(selected - 1, 0));
+                        e.consume();
+                        break;
+                    case KeyEvent.VK_ENTER:
+                        if (selected >= 0) {
+                            choose(names.get(selected));
+                            e.consume();
+                        }
+                        break;
+                    case KeyEvent.VK_ESCAPE:
+                        hide();
+                        e.consume();
+                        break;
+                    default:
+                        break;
+                }
+            }
+        });
+        list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = list.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    choose(names.get(index));
+                }
+            }
+        });
+        // Tabbing away closes the list; a heavyweight popup window taking focus for a moment does not
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                if (!e.isTemporary()) {
+                    hide();
+                }
+            }
+        });
+    }
+
+    private void query() {
+        int edit = ++edits;
+        if (choosing) {
+            return;
+        }
+        String prefix = field.getText().trim();
+        if (prefix.isEmpty()) {
+            hide();
+            return;
+        }
+        service.suggestGuests(prefix, LIMIT).whenCompleteAsync((found, error) -> {
+            if (edit != edits) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Error suggesting guests: " + error.getMessage());
+                hide();
+                return;
+            }
+            show(found);
+        }, HotelService.EDT);
+    }
+
+    private void show(List<String> found) {
+        // Nothing to suggest, or only what is already typed
+        if (found.isEmpty() || (found.size() == 1 && found.get(0).equals(field.getText().trim())) || !field.isShowing()) {
+            hide();
+            return;
+        }
+        names.clear();
+        for (String name : found) {
+            names.addElement(name);
+        }
+        list.setVisibleRowCount(Math.min(LIMIT, found.size()));
+        list.clearSelection();
+        popup.setPopupSize(Math.max(field.getWidth(), list.getPreferredScrollableViewportSize().width + 8),
+            list.getPreferredScrollableViewportSize().height + 4);
+        if (!popup.isVisible()) {
+            popup.show(field, 0, field.getHeight());
+        } else {
+            popup.pack();
+        }
+        field.requestFocusInWindow();
+    }
+
+    private void select(int index) {
+        if (index >= 0) {
+            list.setSelectedIndex(index);
+            list.ensureIndexIsVisible(index);
+        }
+    }
+
+    // Setting the text fires the document listener; the choice is final, so no new query
+    private void choose(String name) {
+        hide();
+        choosing = true;
+        try {
+            field.setText(name);
+        } finally {
+            choosing = false;
+        }
+        onChosen.accept(name);
+    }
+
+    private void hide() {
+        edits++;
+        popup.setVisible(false);
+    }
+}
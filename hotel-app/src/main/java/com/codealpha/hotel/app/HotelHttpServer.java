@@ -0,0 +1,317 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+import com.codealpha.hotel.Room;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Headless JSON API over the JDK's built-in HTTP server; one virtual thread per request when the JDK has them
+public class HotelHttpServer {
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1000;
+    private final Hotel hotel;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HotelHttpServer(Hotel hotel, int port) throws IOException {
+        this.hotel = hotel;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        route("/rooms", "GET", this::searchRooms);
+        route("/availability", "GET", this::availability);
+        route("/reservations", "GET", this::listReservations);
+        route("/book", "POST", this::book);
+        route("/cancel", "POST", this::cancel);
+        route("/pay", "POST", this::pay);
+    }
+
+    // A context also receives every path under it, /rooms/x and /roomsx included; those get a 404
+    private void route(String path, String method, Endpoint endpoint) {
+        server.createContext(path, exchange -> handle(exchange, path, method, endpoint));
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() exists from JDK 21; older JDKs fall back to a cached pool
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "http-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private interface Endpoint {
+        String respond(Map<String, String> params);
+    }
+
+    private static final class BadRequest extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        BadRequest(String message) { super(message); }
+    }
+
+    private void handle(HttpExchange exchange, String path, String method, Endpoint endpoint) throws IOException {
+        int status;
+        String body;
+        try {
+            if (!path.equals(exchange.getRequestURI().getPath())) {
+                status = 404;
+                body = error("Not found: " + exchange.getRequestURI().getPath());
+            } else if (!method.equals(exchange.getRequestMethod())) {
+                status = 405;
+                body = error("Use " + method);
+            } else {
+                status = 200;
+                body = endpoint.respond(params(exchange));
+            }
+        } catch (BadRequest | NumberFormatException | DateTimeParseException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (ConcurrentModificationException e) {
+            status = 409;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error(e.toString());
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Query string parameters, plus form-encoded body parameters for POST
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        if ("POST".equals(exchange.getRequestMethod())) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            try (InputStream in = exchange.getRequestBody()) {
+                for (int n; (n = in.read(buf)) > 0; ) {
+                    body.write(buf, 0, n);
+                }
+            }
+            parseForm(new String(body.toByteArray(), StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> into) throws UnsupportedEncodingException {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            try {
+                into.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+            } catch (IllegalArgumentException e) {
+                // A malformed escape such as %zz is the client's mistake
+                throw new BadRequest("Malformed parameter: " + pair);
+            }
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new BadRequest("Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    private static Room.Category category(String name) {
+        try {
+            return Room.Category.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest("Unknown category: " + name);
+        }
+    }
+
+    // GET /rooms?category=DELUXE[&checkIn=2024-05-12&checkOut=2024-05-15]
+    private String searchRooms(Map<String, String> params) {
+        Room.Category category = category(required(params, "category"));
+        List<Room> rooms;
+        if (params.containsKey("checkIn")) {
+            LocalDate checkIn = LocalDate.parse(params.get("checkIn"));
+            LocalDate checkOut = params.containsKey("checkOut") ? LocalDate.parse(params.get("checkOut")) : checkIn.plusDays(1);
+            if (!checkOut.isAfter(checkIn)) {
+                throw new BadRequest("checkOut must be after checkIn");
+            }
+            rooms = hotel.searchRooms(category, checkIn, checkOut);
+        } else {
+            rooms = new ArrayList<>(hotel.searchRooms(category));
+        }
+        StringBuilder json = new StringBuilder("{\"left\":").append(rooms.size()).append(",\"rooms\":[");
+        for (int i = 0; i < rooms.size(); i++) {
+            if (i > 0) json.append(',');
+            appendRoom(json, rooms.get(i));
+        }
+        return json.append("]}").toString();
+    }
+
+    // GET /availability: rooms with no bookings on any night, per category
+    private String availability(Map<String, String> params) {
+        StringBuilder json = new StringBuilder("{");
+        for (Room.Category category : Room.Category.values()) {
+            if (json.length() > 1) json.append(',');
+            json.append('"').append(category).append("\":").append(hotel.availableRoomCount(category));
+        }
+        return json.append('}').toString();
+    }
+
+    // GET /reservations[?guest=Ann][&room=7][&offset=0][&limit=100]
+    // One page of at most limit reservations (100 unless given, never over 1000) from offset on; total
+    // counts every match. Unfiltered pages follow Hotel.getReservations(), which cancellations reorder.
+    private String listReservations(Map<String, String> params) {
+        int offset = count(params, "offset", 0);
+        int limit = Math.min(count(params, "limit", DEFAULT_PAGE), MAX_PAGE);
+        List<Reservation> page;
+        int total;
+        if (params.containsKey("room") || params.containsKey("guest")) {
+            List<Reservation> list = new ArrayList<>();
+            if (params.containsKey("room")) {
+                for (Reservation res : hotel.getReservationsForRoom(Integer.parseInt(params.get("room")))) {
+                    if (!params.containsKey("guest") || res.getGuestName().equals(params.get("guest"))) list.add(res);
+                }
+            } else {
+                list.addAll(hotel.getReservationsForGuest(params.get("guest")));
+            }
+            total = list.size();
+            page = list.subList(Math.min(offset, total), (int) Math.min(total, (long) offset + limit));
+        } else {
+            total = hotel.getReservationCount();
+            page = hotel.snapshotReservations(offset, limit);
+        }
+        StringBuilder json = new StringBuilder("{\"total\":").append(total)
+            .append(",\"offset\":").append(offset)
+            .append(",\"limit\":").append(limit)
+            .append(",\"reservations\":[");
+        boolean first = true;
+        for (Reservation res : page) {
+            if (!first) json.append(',');
+            first = false;
+            json.append("{\"guest\":").append(quote(res.getGuestName()))
+                .append(",\"room\":");
+            appendRoom(json, res.getRoom());
+            json.append(",\"date\":\"").append(res.getDate())
+                .append("\",\"paid\":").append(res.isPaid()).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // POST /book guest=Ann&room=7&date=2024-05-12[&version=3]
+    // With the room's version from an earlier response, answers 409 if the room has changed since
+    private String book(Map<String, String> params) {
+        return result(hotel.bookRoom(required(params, "guest"), Integer.parseInt(required(params, "room")),
+            LocalDate.parse(required(params, "date")), version(params)));
+    }
+
+    // POST /cancel guest=Ann&room=7[&version=3]
+    private String cancel(Map<String, String> params) {
+        return result(hotel.cancelReservation(required(params, "guest"), Integer.parseInt(required(params, "room")),
+            version(params)));
+    }
+
+    // POST /pay guest=Ann&room=7[&version=3]
+    private String pay(Map<String, String> params) {
+        return result(hotel.payReservation(required(params, "guest"), Integer.parseInt(required(params, "room")),
+            version(params)));
+    }
+
+    private static int count(Map<String, String> params, String name, int absent) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return absent;
+        }
+        int count = Integer.parseInt(value.trim());
+        if (count < 0) {
+            throw new BadRequest(name + " must not be negative");
+        }
+        return count;
+    }
+
+    // -1, any version, when the client did not send one
+    private static long version(Map<String, String> params) {
+        String version = params.get("version");
+        return version == null || version.trim().isEmpty() ? -1 : Long.parseLong(version.trim());
+    }
+
+    private void appendRoom(StringBuilder json, Room room) {
+        json.append("{\"number\":").append(room.getRoomNumber())
+            .append(",\"category\":\"").append(room.getCategory())
+            .append("\",\"available\":").append(room.isAvailable())
+            .append(",\"version\":").append(hotel.getRoomVersion(room.getRoomNumber())).append('}');
+    }
+
+    private static String result(boolean success) {
+        return "{\"success\":" + success + "}";
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(String.valueOf(message)) + "}";
+    }
+
+    static String quote(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+}
@@ -0,0 +1,663 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.BinarySnapshot;
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.HotelChain;
+import com.codealpha.hotel.OccupancyReport;
+import com.codealpha.hotel.ReservationCsv;
+import com.codealpha.hotel.Room;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+public class HotelReservationSystem extends JFrame {
+    private HotelService service;
+    private JComboBox<Room.Category> categoryBox;
+    private JList<Room> roomList;
+    private JTable reservationTable;
+    private ReservationTableModel reservationModel;
+    private TableRowSorter<ReservationTableModel> reservationSorter;
+    private JTextField guestFilterField, roomFilterField, dateFilterField;
+    private JComboBox<String> paidFilterBox;
+    private JTextField nameField, roomField, dateField, checkInField, checkOutField;
+    private JButton searchBtn, bookBtn, cancelBtn, payBtn, viewBtn;
+    private JLabel statusLabel;
+    private JLabel roomsLeftLabel;
+    private JLabel metricsLabel;
+    private DiagnosticsPanel diagnosticsPanel;
+    private ReportsPanel reportsPanel;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    public HotelReservationSystem() {
+        service = new HotelService(Hotel::new);
+        setTitle("Hotel Reservation System");
+        setSize(800, 600);
+        setMinimumSize(new Dimension(600, 400));
+        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+        getContentPane().setBackground(new Color(240, 240, 240)); // Light gray background
+
+        // Initialize components with modern styling
+        metricsLabel = new JLabel();
+        metricsLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
+        metricsLabel.setForeground(Color.DARK_GRAY);
+        diagnosticsPanel = new DiagnosticsPanel(metricsLabel);
+        reportsPanel = new ReportsPanel(service);
+        initComponents();
+
+        // Set up the main layout
+        JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
+        mainPanel.setBorder(new EmptyBorder(10, 10, 10, 10));
+        mainPanel.setBackground(new Color(240, 240, 240));
+
+        // Top panel for search
+        JPanel topPanel = createTopPanel();
+        mainPanel.add(topPanel, BorderLayout.NORTH);
+
+        // Center panel for room display
+        JPanel centerPanel = createCenterPanel();
+        mainPanel.add(centerPanel, BorderLayout.CENTER);
+
+        // Bottom panel for booking and reservations
+        JPanel bottomPanel = createBottomPanel();
+        mainPanel.add(bottomPanel, BorderLayout.SOUTH);
+
+        // Status bar at the bottom
+        statusLabel = new JLabel("Ready");
+        statusLabel.setBorder(new EmptyBorder(5, 10, 5, 10));
+        statusLabel.setForeground(new Color(0, 128, 0)); // Green for status
+
+        // Booking latency summary on the right of the status bar
+        JPanel statusBar = new JPanel(new BorderLayout());
+        statusBar.setBackground(new Color(240, 240, 240));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+        statusBar.add(metricsLabel, BorderLayout.EAST);
+
+        add(mainPanel, BorderLayout.CENTER);
+        add(statusBar, BorderLayout.SOUTH);
+
+        // Data loads in the background; actions are enabled once it is ready
+        setActionsEnabled(false);
+        service.setProgressListener(message -> {
+            statusLabel.setText(message);
+            statusLabel.setForeground(Color.DARK_GRAY);
+        });
+        onResult(service.loaded(), h -> {
+            reservationModel.attach(h);
+            diagnosticsPanel.attach(h.getMetrics());
+            // Build the guest-name index now rather than on the first keystroke
+            service.suggestGuests("", 0);
+            updateRoomsLeft();
+            setActionsEnabled(true);
+            statusLabel.setText("Ready");
+            statusLabel.setForeground(new Color(0, 128, 0));
+        });
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                diagnosticsPanel.stop();
+                service.shutdown();
+            }
+        });
+
+        // Apply Nimbus Look and Feel
+        try {
+            for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
+                if ("Nimbus".equals(info.getName())) {
+                    UIManager.setLookAndFeel(info.getClassName());
+                    SwingUtilities.updateComponentTreeUI(this);
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            try {
+                UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+            } catch (Exception ex) {
+                System.err.println("Error setting look and feel: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void initComponents() {
+        // Initialize components with tooltips and fonts
+        categoryBox = new JComboBox<>(Room.Category.values());
+        categoryBox.setFont(new Font("Arial", Font.PLAIN, 14));
+        categoryBox.setToolTipText("Select room category");
+        categoryBox.addActionListener(e -> updateRoomsLeft());
+
+        roomsLeftLabel = new JLabel(" ");
+        roomsLeftLabel.setFont(new Font("Arial", Font.ITALIC, 13));
+        roomsLeftLabel.setToolTipText("Rooms in this category with no bookings");
+
+        checkInField = new JTextField(10);
+        checkInField.setFont(new Font("Arial", Font.PLAIN, 14));
+        checkInField.setToolTipText("Optional check-in date (YYYY-MM-DD)");
+
+        checkOutField = new JTextField(10);
+        checkOutField.setFont(new Font("Arial", Font.PLAIN, 14));
+        checkOutField.setToolTipText("Optional check-out date (YYYY-MM-DD)");
+
+        searchBtn = new JButton("Search Rooms");
+        searchBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        searchBtn.setBackground(new Color(70, 130, 180));
+        searchBtn.setForeground(Color.WHITE);
+        searchBtn.setToolTipText("Search for available rooms");
+
+        roomList = new JList<>();
+        roomList.setFont(new Font("Arial", Font.PLAIN, 14));
+        roomList.setVisibleRowCount(10);
+        roomList.setToolTipText("Available rooms in selected category");
+
+        reservationModel = new ReservationTableModel();
+        // Every booking or cancellation reaches the table on the event thread; refresh the count with it
+        reservationModel.addTableModelListener(e -> updateRoomsLeft());
+        reservationTable = new JTable(reservationModel);
+        reservationTable.setFont(new Font("Arial", Font.PLAIN, 14));
+        reservationTable.setRowHeight(22);
+        reservationTable.setFillsViewportHeight(true);
+        reservationTable.setPreferredScrollableViewportSize(new Dimension(700, 150));
+        reservationTable.setToolTipText("Current reservations; click a column header to sort");
+        reservationSorter = new TableRowSorter<>(reservationModel);
+        reservationTable.setRowSorter(reservationSorter);
+
+        guestFilterField = new JTextField(12);
+        guestFilterField.setToolTipText("Show guests whose name contains this text");
+        roomFilterField = new JTextField(4);
+        roomFilterField.setToolTipText("Show one room number");
+        dateFilterField = new JTextField(8);
+        dateFilterField.setToolTipText("Show dates starting with this (e.g. 2024-05)");
+        paidFilterBox = new JComboBox<>(new String[] { "All", "Paid", "Unpaid" });
+        paidFilterBox.setToolTipText("Filter by payment status");
+        DocumentListener refilter = new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { applyReservationFilter(); }
+            public void removeUpdate(DocumentEvent e) { applyReservationFilter(); }
+            public void changedUpdate(DocumentEvent e) { applyReservationFilter(); }
+        };
+        guestFilterField.getDocument().addDocumentListener(refilter);
+        roomFilterField.getDocument().addDocumentListener(refilter);
+        dateFilterField.getDocument().addDocumentListener(refilter);
+        paidFilterBox.addActionListener(e -> applyReservationFilter());
+
+        nameField = new JTextField(15);
+        nameField.setFont(new Font("Arial", Font.PLAIN, 14));
+        nameField.setToolTipText("Enter guest name; existing guests are suggested as you type");
+        // Picking a known guest also lists their bookings, ready to cancel or pay
+        new GuestNameSuggester(nameField, service, name -> guestFilterField.setText(name));
+
+        roomField = new JTextField(5);
+        roomField.setFont(new Font("Arial", Font.PLAIN, 14));
+        roomField.setToolTipText("Enter room number");
+
+        dateField = new JTextField(10);
+        dateField.setFont(new Font("Arial", Font.PLAIN, 14));
+        dateField.setToolTipText("Enter date (YYYY-MM-DD)");
+
+        bookBtn = new JButton("Book Room");
+        bookBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        bookBtn.setBackground(new Color(34, 139, 34));
+        bookBtn.setForeground(Color.WHITE);
+        bookBtn.setToolTipText("Book the selected room");
+
+        cancelBtn = new JButton("Cancel Reservation");
+        cancelBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        cancelBtn.setBackground(new Color(220, 20, 60));
+        cancelBtn.setForeground(Color.WHITE);
+        cancelBtn.setToolTipText("Cancel an existing reservation");
+
+        payBtn = new JButton("Pay");
+        payBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        payBtn.setBackground(new Color(255, 165, 0));
+        payBtn.setForeground(Color.WHITE);
+        payBtn.setToolTipText("Mark reservation as paid");
+
+        viewBtn = new JButton("Refresh Reservations");
+        viewBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        viewBtn.setBackground(new Color(70, 130, 180));
+        viewBtn.setForeground(Color.WHITE);
+        viewBtn.setToolTipText("Reload the reservation table");
+
+        // Add action listeners
+        searchBtn.addActionListener(e -> searchRooms());
+        bookBtn.addActionListener(e -> bookRoom());
+        cancelBtn.addActionListener(e -> cancelReservation());
+        payBtn.addActionListener(e -> payReservation());
+        viewBtn.addActionListener(e -> viewReservations());
+    }
+
+    private JPanel createTopPanel() {
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        topPanel.setBorder(new TitledBorder("Search Rooms"));
+        topPanel.setBackground(new Color(240, 240, 240));
+        topPanel.add(new JLabel("Category:"));
+        topPanel.add(categoryBox);
+        topPanel.add(roomsLeftLabel);
+        topPanel.add(new JLabel("Check-in:"));
+        topPanel.add(checkInField);
+        topPanel.add(new JLabel("Check-out:"));
+        topPanel.add(checkOutField);
+        topPanel.add(searchBtn);
+        return topPanel;
+    }
+
+    private JPanel createCenterPanel() {
+        JPanel centerPanel = new JPanel(new BorderLayout());
+        centerPanel.setBorder(new TitledBorder("Available Rooms"));
+        JScrollPane roomScroll = new JScrollPane(roomList);
+        centerPanel.add(roomScroll, BorderLayout.CENTER);
+        return centerPanel;
+    }
+
+    private JPanel createBottomPanel() {
+        JPanel bottomPanel = new JPanel(new GridBagLayout());
+        bottomPanel.setBackground(new Color(240, 240, 240));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(5, 5, 5, 5);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        // Booking panel
+        JPanel bookingPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 5));
+        bookingPanel.setBorder(new TitledBorder("Book Room"));
+        bookingPanel.add(new JLabel("Name:"));
+        bookingPanel.add(nameField);
+        bookingPanel.add(new JLabel("Room #:"));
+        bookingPanel.add(roomField);
+        bookingPanel.add(new JLabel("Date (YYYY-MM-DD):"));
+        bookingPanel.add(dateField);
+        bookingPanel.add(bookBtn);
+        bookingPanel.add(cancelBtn);
+        bookingPanel.add(payBtn);
+
+        // Reservation panel
+        JPanel reservationPanel = new JPanel(new BorderLayout());
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 2));
+        filterPanel.add(viewBtn);
+        filterPanel.add(new JLabel("Guest:"));
+        filterPanel.add(guestFilterField);
+        filterPanel.add(new JLabel("Room #:"));
+        filterPanel.add(roomFilterField);
+        filterPanel.add(new JLabel("Date:"));
+        filterPanel.add(dateFilterField);
+        filterPanel.add(paidFilterBox);
+        reservationPanel.add(filterPanel, BorderLayout.NORTH);
+        JScrollPane resScroll = new JScrollPane(reservationTable);
+        reservationPanel.add(resScroll, BorderLayout.CENTER);
+
+        // Reservations and live operation latencies share the lower half
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Reservations", reservationPanel);
+        tabs.addTab("Reports", reportsPanel);
+        tabs.addTab("Diagnostics", diagnosticsPanel);
+        // Opening the Reports tab re-runs the report, which only rolls up counts the hotel keeps current
+        tabs.addChangeListener(e -> {
+            if (tabs.getSelectedComponent() == reportsPanel && service.loaded().isDone()) {
+                reportsPanel.run();
+            }
+        });
+
+        // Add to bottom panel
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        bottomPanel.add(bookingPanel, gbc);
+        gbc.gridy = 1;
+        bottomPanel.add(tabs, gbc);
+
+        return bottomPanel;
+    }
+
+    private void setActionsEnabled(boolean enabled) {
+        for (JButton button : new JButton[] { searchBtn, bookBtn, cancelBtn, payBtn, viewBtn }) {
+            button.setEnabled(enabled);
+        }
+        reportsPanel.setRunEnabled(enabled);
+    }
+
+    // Delivers a service result on the event thread, reporting failures in the status bar
+    private <T> void onResult(CompletableFuture<T> future, Consumer<T> handler) {
+        future.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof ConcurrentModificationException) {
+                    JOptionPane.showMessageDialog(this, cause.getMessage() + ". Nothing was saved; check the room and try again.");
+                    statusLabel.setText("Changed at another desk: " + cause.getMessage());
+                    statusLabel.setForeground(Color.RED);
+                    return;
+                }
+                JOptionPane.showMessageDialog(this, "Operation failed: " + cause.getMessage());
+                statusLabel.setText("Error: " + cause.getMessage());
+                statusLabel.setForeground(Color.RED);
+            } else {
+                handler.accept(result);
+            }
+        }, HotelService.EDT);
+    }
+
+    private void searchRooms() {
+        Room.Category cat = (Room.Category) categoryBox.getSelectedItem();
+        String checkInStr = checkInField.getText().trim();
+        String checkOutStr = checkOutField.getText().trim();
+        CompletableFuture<List<Room>> search;
+        if (checkInStr.isEmpty() && checkOutStr.isEmpty()) {
+            search = service.searchRooms(cat);
+        } else {
+            try {
+                LocalDate checkIn = LocalDate.parse(checkInStr, DATE_FORMAT);
+                LocalDate checkOut = checkOutStr.isEmpty() ? checkIn.plusDays(1) : LocalDate.parse(checkOutStr, DATE_FORMAT);
+                if (!checkOut.isAfter(checkIn)) {
+                    JOptionPane.showMessageDialog(this, "Check-out must be after check-in.");
+                    statusLabel.setText("Invalid date range.");
+                    statusLabel.setForeground(Color.RED);
+                    return;
+                }
+                search = service.searchRooms(cat, checkIn, checkOut);
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.");
+                statusLabel.setText("Invalid date format.");
+                statusLabel.setForeground(Color.RED);
+                return;
+            }
+        }
+        onResult(search, this::showRooms);
+    }
+
+    private void showRooms(List<Room> available) {
+        // The list model reads the search result in place, so only visible rows are rendered
+        roomList.setModel(new AbstractListModel<Room>() {
+            private static final long serialVersionUID = 1L;
+            public int getSize() { return available.size(); }
+            public Room getElementAt(int index) { return available.get(index); }
+        });
+        if (available.isEmpty()) {
+            statusLabel.setText("No rooms available.");
+            statusLabel.setForeground(Color.RED);
+        } else {
+            statusLabel.setText("Rooms loaded successfully.");
+            statusLabel.setForeground(new Color(0, 128, 0));
+        }
+    }
+
+    private void updateRoomsLeft() {
+        int left = service.availableRoomCount((Room.Category) categoryBox.getSelectedItem());
+        roomsLeftLabel.setText(left == 1 ? "1 room never booked" : left + " rooms never booked");
+    }
+
+    private void bookRoom() {
+        String name = nameField.getText().trim();
+        String roomNumStr = roomField.getText().trim();
+        String dateStr = dateField.getText().trim();
+
+        if (name.isEmpty() || roomNumStr.isEmpty() || dateStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please fill in all fields (Name, Room #, Date).");
+            statusLabel.setText("Missing fields.");
+            statusLabel.setForeground(Color.RED);
+            return;
+        }
+
+        try {
+            int roomNum = Integer.parseInt(roomNumStr);
+            LocalDate date = LocalDate.parse(dateStr, DATE_FORMAT);
+            // Read before asking, so a change made at another desk while the dialog is up is not overwritten
+            long version = service.roomVersion(roomNum);
+            int confirm = JOptionPane.showConfirmDialog(this, 
+                "Confirm booking for " + name + " in Room " + roomNum + " on " + date + "?", 
+                "Confirm Booking", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                onResult(service.bookRoom(name, roomNum, date, version), success -> {
+                    JOptionPane.showMessageDialog(this, success ? "Room booked!" : "Booking failed.");
+                    statusLabel.setText(success ? "Booking successful." : "Booking failed.");
+                    statusLabel.setForeground(success ? new Color(0, 128, 0) : Color.RED);
+                    searchRooms();
+                });
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid room number.");
+            statusLabel.setText("Invalid room number.");
+            statusLabel.setForeground(Color.RED);
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid date format. Use YYYY-MM-DD.");
+            statusLabel.setText("Invalid date format.");
+            statusLabel.setForeground(Color.RED);
+        }
+    }
+
+    private void cancelReservation() {
+        String name = nameField.getText().trim();
+        String roomNumStr = roomField.getText().trim();
+
+        if (name.isEmpty() || roomNumStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please fill in Name and Room #.");
+            statusLabel.setText("Missing fields.");
+            statusLabel.setForeground(Color.RED);
+            return;
+        }
+
+        try {
+            int roomNum = Integer.parseInt(roomNumStr);
+            long version = service.roomVersion(roomNum);
+            int confirm = JOptionPane.showConfirmDialog(this, 
+                "Cancel reservation for " + name + " in Room " + roomNum + "?", 
+                "Confirm Cancellation", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                onResult(service.cancelReservation(name, roomNum, version), success -> {
+                    JOptionPane.showMessageDialog(this, success ? "Reservation cancelled." : "Cancel failed.");
+                    statusLabel.setText(success ? "Cancellation successful." : "Cancellation failed.");
+                    statusLabel.setForeground(success ? new Color(0, 128, 0) : Color.RED);
+                    searchRooms();
+                });
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid room number.");
+            statusLabel.setText("Invalid room number.");
+            statusLabel.setForeground(Color.RED);
+        }
+    }
+
+    private void payReservation() {
+        String name = nameField.getText().trim();
+        String roomNumStr = roomField.getText().trim();
+
+        if (name.isEmpty() || roomNumStr.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please fill in Name and Room #.");
+            statusLabel.setText("Missing fields.");
+            statusLabel.setForeground(Color.RED);
+            return;
+        }
+
+        try {
+            int roomNum = Integer.parseInt(roomNumStr);
+            long version = service.roomVersion(roomNum);
+            int confirm = JOptionPane.showConfirmDialog(this, 
+                "Mark payment for " + name + " in Room " + roomNum + "?", 
+                "Confirm Payment", JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                onResult(service.payReservation(name, roomNum, version), success -> {
+                    JOptionPane.showMessageDialog(this, success ? "Payment successful." : "Payment failed.");
+                    statusLabel.setText(success ? "Payment successful." : "Payment failed.");
+                    statusLabel.setForeground(success ? new Color(0, 128, 0) : Color.RED);
+                });
+            }
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid room number.");
+            statusLabel.setText("Invalid room number.");
+            statusLabel.setForeground(Color.RED);
+        }
+    }
+
+    // The table follows Hotel's change events; this only resyncs it and reports the count
+    private void viewReservations() {
+        onResult(service.loaded(), h -> {
+            reservationModel.attach(h);
+            int count = reservationModel.getRowCount();
+            statusLabel.setText(count == 0 ? "No reservations found." : count + " reservations.");
+            statusLabel.setForeground(count == 0 ? Color.RED : new Color(0, 128, 0));
+        });
+    }
+
+    private void applyReservationFilter() {
+        Integer room = null;
+        String roomText = roomFilterField.getText().trim();
+        if (!roomText.isEmpty()) {
+            try {
+                room = Integer.parseInt(roomText);
+            } catch (NumberFormatException ex) {
+                statusLabel.setText("Invalid room number filter.");
+                statusLabel.setForeground(Color.RED);
+                return;
+            }
+        }
+        String paid = (String) paidFilterBox.getSelectedItem();
+        Boolean paidFilter = "Paid".equals(paid) ? Boolean.TRUE : "Unpaid".equals(paid) ? Boolean.FALSE : null;
+        reservationSorter.setRowFilter(ReservationTableModel.filter(
+            guestFilterField.getText(), room, dateFilterField.getText(), paidFilter));
+    }
+
+    private static void printReportRow(String period, OccupancyReport.Row row) {
+        System.out.printf(Locale.ROOT, "%s,%s,%.4f,%d,%d,%s,%s%n", period, row.getCategory(), row.getOccupancy(),
+            row.getBookedNights(), row.getRoomNights(), row.getRevenue().toPlainString(), row.getPaidRevenue().toPlainString());
+    }
+
+    // No arguments opens the desktop UI.
+    //   --server [port]                          serves the JSON API without a window (default port 8080)
+    //   --loadtest [url] [connections] [requests] drives a running server and prints latency percentiles
+    //   --migrate [dir]                          converts rooms.dat/reservations.dat to hotel.snap (default .)
+    //   --import file [all-or-nothing]           applies a CSV of bookings, cancels and payments (best effort by default;
+    //                                            all-or-nothing applies the whole file or none of it)
+    //   --export file [from to]                  writes every reservation, archived ones included, as CSV
+    //   --archive [before]                       moves stays before a date (default: this month) to the archive
+    //   --report [day|week|month] [from] [to]    prints occupancy and revenue per category as CSV (monthly, all history)
+    //   --chain-search root category [checkIn checkOut] [budgetMs]
+    //                                            searches every property under root in parallel (budget 500 ms)
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+            Hotel hotel = new Hotel();
+            HotelHttpServer server = new HotelHttpServer(hotel, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                hotel.close();
+            }));
+            server.start();
+            System.out.println("Hotel API listening on port " + server.port());
+        } else if (args.length > 0 && args[0].equals("--loadtest")) {
+            String url = args.length > 1 ? args[1] : "http://localhost:8080";
+            int connections = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+            int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100;
+            HttpLoadTest.run(url, connections, requests);
+        } else if (args.length > 0 && args[0].equals("--migrate")) {
+            File dir = new File(args.length > 1 ? args[1] : ".");
+            System.out.println(BinarySnapshot.migrate(dir)
+                ? "Migrated " + dir + " to " + BinarySnapshot.FILE
+                : "Nothing to migrate in " + dir);
+        } else if (args.length > 1 && args[0].equals("--import")) {
+            Hotel.BatchMode mode = args.length > 2 && args[2].equals("all-or-nothing")
+                ? Hotel.BatchMode.ALL_OR_NOTHING : Hotel.BatchMode.BEST_EFFORT;
+            Hotel hotel = new Hotel();
+            long start = System.nanoTime();
+            ReservationCsv.ImportResult result;
+            try (Reader in = Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                Writer rejects = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+                result = ReservationCsv.importCsv(hotel, in, mode, ReservationCsv.DEFAULT_CHUNK, rejects);
+                rejects.flush();
+            } finally {
+                hotel.close();
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            System.out.printf("Imported %d of %d rows in %d ms (%d rows/s), %d rejected%n",
+                result.applied, result.rows, millis, result.rows * 1000 / millis, result.rejected);
+        } else if (args.length > 1 && args[0].equals("--export")) {
+            Hotel hotel = new Hotel();
+            LocalDate from = args.length > 2 ? LocalDate.parse(args[2]) : null;
+            LocalDate to = args.length > 3 ? LocalDate.parse(args[3]) : null;
+            try (Writer out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                System.out.println("Exported " + ReservationCsv.exportCsv(hotel, out, from, to) + " reservations to " + args[1]);
+            } finally {
+                hotel.close();
+            }
+        } else if (args.length > 0 && args[0].equals("--archive")) {
+            LocalDate before = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.now().withDayOfMonth(1);
+            Hotel hotel = new Hotel();
+            try {
+                long start = System.nanoTime();
+                int moved = hotel.archiveBefore(before);
+                System.out.printf("Archived %d reservations before %s in %d ms; %d archived in %d KB, %d in memory%n",
+                    moved, before, (System.nanoTime() - start) / 1_000_000, hotel.getArchivedReservationCount(),
+                    hotel.getArchiveBytes() >> 10, hotel.getReservationCount());
+            } finally {
+                hotel.close();
+            }
+        } else if (args.length > 0 && args[0].equals("--report")) {
+            OccupancyReport.Granularity granularity = args.length > 1
+                ? OccupancyReport.Granularity.valueOf(args[1].toUpperCase()) : OccupancyReport.Granularity.MONTH;
+            LocalDate from = args.length > 2 ? LocalDate.parse(args[2]) : null;
+            LocalDate to = args.length > 3 ? LocalDate.parse(args[3]) : null;
+            Hotel hotel = new Hotel();
+            try {
+                long start = System.nanoTime();
+                OccupancyReport report = hotel.occupancyReport(granularity, from, to);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                System.out.println("period,category,occupancy,booked_nights,room_nights,revenue,paid_revenue");
+                for (OccupancyReport.Row row : report.getRows()) {
+                    printReportRow(row.getPeriodStart().toString(), row);
+                }
+                for (OccupancyReport.Row row : report.getTotals()) {
+                    printReportRow("total", row);
+                }
+                System.err.printf("Report over %d reservations in %d ms%n",
+                    hotel.getReservationCount() + hotel.getArchivedReservationCount(), millis);
+            } finally {
+                hotel.close();
+            }
+        } else if (args.length > 2 && args[0].equals("--chain-search")) {
+            Room.Category category = Room.Category.valueOf(args[2].toUpperCase());
+            LocalDate checkIn = args.length > 4 ? LocalDate.parse(args[3]) : null;
+            LocalDate checkOut = args.length > 4 ? LocalDate.parse(args[4]) : null;
+            long budget = args.length > 5 ? Long.parseLong(args[5]) : args.length == 4 ? Long.parseLong(args[3]) : 500;
+            HotelChain chain = new HotelChain(new File(args[1]),
+                BookingJournal.Durability.valueOf(System.getProperty("hotel.journal.durability", "FSYNC_EACH")),
+                Long.getLong("hotel.journal.groupCommitMs", 5));
+            try {
+                long start = System.nanoTime();
+                HotelChain.SearchResult result = chain.searchRooms(category, checkIn, checkOut, budget);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                for (Map.Entry<String, List<Room>> entry : result.getRoomsByProperty().entrySet()) {
+                    for (Room room : entry.getValue()) {
+                        System.out.println(entry.getKey() + "," + room.getRoomNumber() + "," + room.getCategory());
+                    }
+                }
+                for (Map.Entry<String, String> entry : result.getFailed().entrySet()) {
+                    System.err.println("Error searching " + entry.getKey() + ": " + entry.getValue());
+                }
+                System.err.printf("%d rooms from %d of %d properties in %d ms%s%n", result.roomCount(),
+                    result.getRoomsByProperty().size(), chain.properties().size(), millis,
+                    result.getTimedOut().isEmpty() ? "" : ", over budget: " + result.getTimedOut());
+            } finally {
+                chain.close();
+            }
+        } else {
+            SwingUtilities.invokeLater(() -> new HotelReservationSystem().setVisible(true));
+        }
+    }
+}
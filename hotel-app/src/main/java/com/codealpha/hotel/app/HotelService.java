@@ -0,0 +1,127 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.OccupancyReport;
+import com.codealpha.hotel.Reservation;
+import com.codealpha.hotel.Room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+// Runs Hotel calls on a dedicated executor so loading and persistence never block the Swing event
+// thread. Results come back as futures; progress messages are delivered on the event thread.
+public class HotelService {
+    public static final Executor EDT = SwingUtilities::invokeLater;
+    private static final int THREADS = 4;
+
+    private final ExecutorService executor;
+    private final CompletableFuture<Hotel> hotel;
+    private volatile Consumer<String> progressListener = message -> { };
+
+    public HotelService(Supplier<Hotel> loader) {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread t = new Thread(r, "hotel-service-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        hotel = CompletableFuture.supplyAsync(() -> {
+            progress("Loading hotel data...");
+            return loader.get();
+        }, executor);
+    }
+
+    public void setProgressListener(Consumer<String> listener) {
+        progressListener = listener;
+    }
+
+    public CompletableFuture<Hotel> loaded() {
+        return hotel;
+    }
+
+    // The UI keeps the result, so take a stable copy of the hotel's live view
+    public CompletableFuture<List<Room>> searchRooms(Room.Category category) {
+        return submit("Searching rooms...", h -> new ArrayList<>(h.searchRooms(category)));
+    }
+
+    // O(1) and never blocks, so it may be called on the event thread; 0 until the hotel has loaded
+    public int availableRoomCount(Room.Category category) {
+        Hotel h = hotel.getNow(null);
+        return h == null ? 0 : h.availableRoomCount(category);
+    }
+
+    public CompletableFuture<List<Room>> searchRooms(Room.Category category, LocalDate checkIn, LocalDate checkOut) {
+        return submit("Searching rooms...", h -> h.searchRooms(category, checkIn, checkOut));
+    }
+
+    // Never blocks; -1 until the hotel has loaded, which the versioned calls below treat as "any version"
+    public long roomVersion(int roomNumber) {
+        Hotel h = hotel.getNow(null);
+        return h == null ? -1 : h.getRoomVersion(roomNumber);
+    }
+
+    // The version arguments come from roomVersion when the user started the action; the futures fail with
+    // ConcurrentModificationException if the room changed in the meantime, at this desk or another
+    public CompletableFuture<Boolean> bookRoom(String guestName, int roomNumber, LocalDate date, long version) {
+        return submit("Saving booking...", h -> h.bookRoom(guestName, roomNumber, date, version));
+    }
+
+    public CompletableFuture<Boolean> cancelReservation(String guestName, int roomNumber, long version) {
+        return submit("Saving cancellation...", h -> h.cancelReservation(guestName, roomNumber, version));
+    }
+
+    public CompletableFuture<Boolean> payReservation(String guestName, int roomNumber, long version) {
+        return submit("Saving payment...", h -> h.payReservation(guestName, roomNumber, version));
+    }
+
+    // Asked on every keystroke, so it skips the progress message that would flicker in the status bar
+    public CompletableFuture<List<String>> suggestGuests(String prefix, int limit) {
+        return hotel.thenApplyAsync(h -> h.suggestGuests(prefix, limit), executor);
+    }
+
+    public CompletableFuture<OccupancyReport> occupancyReport(OccupancyReport.Granularity granularity, LocalDate from, LocalDate to) {
+        return submit("Running report...", h -> h.occupancyReport(granularity, from, to));
+    }
+
+    public CompletableFuture<List<Reservation>> reservations() {
+        return submit("Loading reservations...", Hotel::snapshotReservations);
+    }
+
+    private <T> CompletableFuture<T> submit(String description, Function<Hotel, T> call) {
+        return hotel.thenApplyAsync(h -> {
+            progress(description);
+            return call.apply(h);
+        }, executor);
+    }
+
+    private void progress(String message) {
+        Consumer<String> listener = progressListener;
+        SwingUtilities.invokeLater(() -> listener.accept(message));
+    }
+
+    // Lets queued writes finish, then closes the journal
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Hotel h = hotel.getNow(null);
+        if (h != null) {
+            h.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.Room;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Local load generator for HotelHttpServer: mixed search/book/pay/cancel traffic, reports latency percentiles
+public class HttpLoadTest {
+    public static void run(String baseUrl, int connections, int requestsPerConnection) throws Exception {
+        long[] latencies = new long[connections * requestsPerConnection];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService clients = HotelHttpServer.newRequestExecutor();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> done = new ArrayList<>();
+        for (int c = 0; c < connections; c++) {
+            final int client = c;
+            done.add(clients.submit(() -> {
+                start.await();
+                Random random = new Random(client);
+                for (int i = 0; i < requestsPerConnection; i++) {
+                    String guest = "load-" + client;
+                    int room = 1 + random.nextInt(10);
+                    long t0 = System.nanoTime();
+                    boolean ok;
+                    try {
+                        switch (random.nextInt(4)) {
+                            case 0: ok = request(baseUrl + "/rooms?category=" + Room.Category.values()[random.nextInt(3)], null); break;
+                            case 1: ok = request(baseUrl + "/book", "guest=" + guest + "&room=" + room
+                                        + "&date=" + LocalDate.now().plusDays(random.nextInt(365))); break;
+                            case 2: ok = request(baseUrl + "/pay", "guest=" + guest + "&room=" + room); break;
+                            default: ok = request(baseUrl + "/cancel", "guest=" + guest + "&room=" + room); break;
+                        }
+                    } catch (IOException e) {
+                        // A refused or reset connection is one failed request, not the end of the run
+                        ok = false;
+                    }
+                    latencies[next.getAndIncrement()] = System.nanoTime() - t0;
+                    if (!ok) failures.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : done) {
+            f.get();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        clients.shutdown();
+        Arrays.sort(latencies);
+        System.out.printf("requests=%d connections=%d failures=%d%n", latencies.length, connections, failures.get());
+        System.out.printf("throughput=%.0f req/s p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+            latencies.length / seconds, percentile(latencies, 0.50) / 1e6,
+            percentile(latencies, 0.99) / 1e6, latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    private static boolean request(String url, String form) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        if (form != null) {
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+            try (OutputStream out = conn.getOutputStream()) {
+                out.write(form.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = conn.getResponseCode();
+        try (InputStream in = status < 400 ? conn.getInputStream() : conn.getErrorStream()) {
+            byte[] buf = new byte[4096];
+            while (in != null && in.read(buf) > 0) { }
+        }
+        return status == 200;
+    }
+}
@@ -0,0 +1,132 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.OccupancyReport;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.table.AbstractTableModel;
+
+// Occupancy and revenue by category and period. Reports run on the service's executor; after the
+// first one the hotel keeps its counts current, so re-running is cheap at any history size.
+class ReportsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = { "Period", "Category", "Occupancy", "Booked", "Capacity", "Revenue", "Paid" };
+    private static final Class<?>[] TYPES = { LocalDate.class, String.class, String.class, Long.class, Long.class, BigDecimal.class, BigDecimal.class };
+
+    private final transient HotelService service;
+    private final JComboBox<OccupancyReport.Granularity> granularityBox = new JComboBox<>(OccupancyReport.Granularity.values());
+    private final JTextField fromField = new JTextField(10);
+    private final JTextField toField = new JTextField(10);
+    private final JButton runBtn = new JButton("Run Report");
+    private final JLabel summaryLabel = new JLabel(" ");
+    private transient List<OccupancyReport.Row> rows = Collections.emptyList();
+    private final AbstractTableModel model = new AbstractTableModel() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int getRowCount() { return rows.size(); }
+
+        @Override
+        public int getColumnCount() { return COLUMNS.length; }
+
+        @Override
+        public String getColumnName(int column) { return COLUMNS[column]; }
+
+        @Override
+        public Class<?> getColumnClass(int column) { return TYPES[column]; }
+
+        @Override
+        public Object getValueAt(int index, int column) {
+            OccupancyReport.Row row = rows.get(index);
+            switch (column) {
+                case 0: return row.getPeriodStart();
+                case 1: return row.getCategory().toString();
+                case 2: return String.format("%.1f%%", row.getOccupancy() * 100);
+                case 3: return row.getBookedNights();
+                case 4: return row.getRoomNights();
+                case 5: return row.getRevenue();
+                default: return row.getPaidRevenue();
+            }
+        }
+    };
+
+    ReportsPanel(HotelService service) {
+        super(new BorderLayout());
+        this.service = service;
+        granularityBox.setSelectedItem(OccupancyReport.Granularity.MONTH);
+        fromField.setToolTipText("First night (YYYY-MM-DD); blank for the first booking");
+        toField.setToolTipText("Last night (YYYY-MM-DD); blank for the last booking");
+        runBtn.addActionListener(e -> run());
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 2));
+        controls.add(new JLabel("By:"));
+        controls.add(granularityBox);
+        controls.add(new JLabel("From:"));
+        controls.add(fromField);
+        controls.add(new JLabel("To:"));
+        controls.add(toField);
+        controls.add(runBtn);
+        add(controls, BorderLayout.NORTH);
+        add(new JScrollPane(new JTable(model)), BorderLayout.CENTER);
+        add(summaryLabel, BorderLayout.SOUTH);
+    }
+
+    void setRunEnabled(boolean enabled) {
+        runBtn.setEnabled(enabled);
+    }
+
+    void run() {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = parse(fromField.getText());
+            to = parse(toField.getText());
+        } catch (DateTimeParseException e) {
+            summaryLabel.setText("Invalid date format.");
+            summaryLabel.setForeground(Color.RED);
+            return;
+        }
+        OccupancyReport.Granularity granularity = (OccupancyReport.Granularity) granularityBox.getSelectedItem();
+        service.occupancyReport(granularity, from, to).whenCompleteAsync((report, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                summaryLabel.setText("Error: " + cause.getMessage());
+                summaryLabel.setForeground(Color.RED);
+                return;
+            }
+            rows = report.getRows();
+            model.fireTableDataChanged();
+            summaryLabel.setText(summary(report));
+            summaryLabel.setForeground(Color.DARK_GRAY);
+        }, HotelService.EDT);
+    }
+
+    private static LocalDate parse(String text) {
+        return text.trim().isEmpty() ? null : LocalDate.parse(text.trim());
+    }
+
+    private static String summary(OccupancyReport report) {
+        if (report.getTo().isBefore(report.getFrom())) {
+            return "No bookings in range.";
+        }
+        StringBuilder sb = new StringBuilder(report.getFrom() + " to " + report.getTo() + ":");
+        for (OccupancyReport.Row total : report.getTotals()) {
+            sb.append(String.format("  %s %.1f%% (%s)", total.getCategory(), total.getOccupancy() * 100, total.getRevenue()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+import com.codealpha.hotel.ReservationListener;
+import com.codealpha.hotel.Room;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+// Table model over Hotel's live reservation list. Cells are read from Hotel by row index only
+// when the table paints them, and Hotel's change events are replayed on the event thread as
+// row insert/update/delete events, so the view never copies or rebuilds the list.
+// Used on the event thread only.
+class ReservationTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    static final int GUEST = 0, ROOM = 1, CATEGORY = 2, DATE = 3, PAID = 4;
+    private static final String[] COLUMNS = { "Guest", "Room #", "Category", "Date", "Paid" };
+    private static final Class<?>[] TYPES = { String.class, Integer.class, Room.Category.class, LocalDate.class, Boolean.class };
+
+    private transient Hotel hotel;
+    private transient ReservationListener listener;
+    // Bumped by each attach; events queued by an earlier listener carry an older one and are dropped,
+    // since the row count they would adjust was already reset
+    private int generation;
+    // Row count as of the last event processed on the event thread; Hotel may already be ahead
+    private int rowCount;
+
+    void attach(Hotel hotel) {
+        if (this.hotel != null) {
+            this.hotel.removeReservationListener(listener);
+        }
+        this.hotel = hotel;
+        listener = new Listener(++generation);
+        rowCount = hotel.addReservationListener(listener);
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return TYPES[column];
+    }
+
+    // Null for a removal that has not reached the event thread yet
+    Reservation reservationAt(int row) {
+        return hotel == null ? null : hotel.getReservation(row);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Reservation res = reservationAt(row);
+        if (res == null) {
+            return null;
+        }
+        switch (column) {
+            case GUEST: return res.getGuestName();
+            case ROOM: return res.getRoom().getRoomNumber();
+            case CATEGORY: return res.getRoom().getCategory();
+            case DATE: return res.getDate();
+            default: return res.isPaid();
+        }
+    }
+
+    // Replays one attach's events on the event thread, unless the model has been attached again since
+    private final class Listener implements ReservationListener {
+        private final int generation;
+
+        Listener(int generation) {
+            this.generation = generation;
+        }
+
+        private void later(Runnable event) {
+            SwingUtilities.invokeLater(() -> {
+                if (generation == ReservationTableModel.this.generation) {
+                    event.run();
+                }
+            });
+        }
+
+        @Override
+        public void reservationAdded(int index) {
+            later(() -> {
+                rowCount++;
+                fireTableRowsInserted(index, index);
+            });
+        }
+
+        @Override
+        public void reservationRemoved(int index, int lastIndex) {
+            later(() -> {
+                if (index != lastIndex) {
+                    fireTableRowsUpdated(index, index);
+                }
+                rowCount--;
+                fireTableRowsDeleted(lastIndex, lastIndex);
+            });
+        }
+
+        @Override
+        public void reservationUpdated(int index) {
+            later(() -> fireTableRowsUpdated(index, index));
+        }
+
+        @Override
+        public void reservationsReset(int size) {
+            later(() -> {
+                rowCount = size;
+                fireTableDataChanged();
+            });
+        }
+    }
+
+    // Guest is a case-insensitive substring, date a prefix of YYYY-MM-DD; null or blank matches all.
+    // Reads the row once, so every field tested comes from the same reservation even while it moves.
+    static RowFilter<ReservationTableModel, Integer> filter(String guest, Integer room, String date, Boolean paid) {
+        String guestNeedle = guest == null ? "" : guest.trim().toLowerCase(Locale.ROOT);
+        String datePrefix = date == null ? "" : date.trim();
+        return new RowFilter<ReservationTableModel, Integer>() {
+            @Override
+            public boolean include(Entry<? extends ReservationTableModel, ? extends Integer> entry) {
+                Reservation res = entry.getModel().reservationAt(entry.getIdentifier());
+                if (res == null) {
+                    return false;
+                }
+                if (!guestNeedle.isEmpty() && !res.getGuestName().toLowerCase(Locale.ROOT).contains(guestNeedle)) {
+                    return false;
+                }
+                if (room != null && room != res.getRoom().getRoomNumber()) {
+                    return false;
+                }
+                if (!datePrefix.isEmpty() && !res.getDate().toString().startsWith(datePrefix)) {
+                    return false;
+                }
+                return paid == null || paid == res.isPaid();
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelHttpServerTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private Hotel hotel;
+    private HotelHttpServer server;
+
+    @BeforeEach
+    void start() throws IOException {
+        hotel = new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, false);
+        server = new HotelHttpServer(hotel, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+        hotel.close();
+    }
+
+    private int status(String path) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.port() + path).openConnection();
+        return conn.getResponseCode();
+    }
+
+    private String get(String path) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.port() + path).openConnection();
+        assertEquals(200, conn.getResponseCode(), path);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = conn.getInputStream()) {
+            byte[] buf = new byte[4096];
+            for (int n; (n = in.read(buf)) > 0; ) {
+                body.write(buf, 0, n);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int occurrences(String s, String part) {
+        int count = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    void onlyExactPathsAreServed() throws IOException {
+        assertEquals(200, status("/rooms?category=STANDARD"));
+        assertEquals(404, status("/rooms/7?category=STANDARD"));
+        assertEquals(404, status("/roomsx?category=STANDARD"));
+        assertEquals(404, status("/reservations/all"));
+        assertEquals(405, status("/book"));
+    }
+
+    @Test
+    void reservationsArePaged() throws IOException {
+        for (int night = 0; night < 150; night++) {
+            assertTrue(hotel.bookRoom("guest-" + night, 1 + night % 10, NIGHT.plusDays(night)));
+        }
+        String first = get("/reservations");
+        assertTrue(first.startsWith("{\"total\":150,\"offset\":0,\"limit\":100,"), first);
+        assertEquals(100, occurrences(first, "\"guest\":"));
+
+        String last = get("/reservations?offset=140&limit=50");
+        assertEquals(10, occurrences(last, "\"guest\":"));
+
+        String capped = get("/reservations?limit=5000");
+        assertTrue(capped.contains("\"limit\":1000,"), capped);
+        assertEquals(150, occurrences(capped, "\"guest\":"));
+
+        String room = get("/reservations?room=3&offset=10&limit=10");
+        assertTrue(room.startsWith("{\"total\":15,"), room);
+        assertEquals(5, occurrences(room, "\"guest\":"));
+
+        assertEquals(400, status("/reservations?offset=-1"));
+    }
+
+    @Test
+    void malformedEscapesAreBadRequests() throws IOException {
+        assertEquals(400, status("/reservations?guest=%zz"));
+        assertEquals(400, status("/rooms?category=%"));
+        HttpURLConnection conn = (HttpURLConnection) new URL("http://localhost:" + server.port() + "/book").openConnection();
+        conn.setRequestMethod("POST");
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write("guest=%zz&room=1&date=2030-01-01".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(400, conn.getResponseCode());
+    }
+}
@@ -0,0 +1,96 @@
+package com.codealpha.hotel.app;
+
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+
+import javax.swing.RowFilter;
+import javax.swing.SwingUtilities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationTableModelTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void open() {
+        hotel = new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, false);
+    }
+
+    @AfterEach
+    void close() {
+        hotel.close();
+    }
+
+    // Lets every event already queued on the event thread run
+    private static void drain() throws Exception {
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    @Test
+    void eventsQueuedBeforeARefreshDoNotCountTwice() throws Exception {
+        ReservationTableModel model = new ReservationTableModel();
+        SwingUtilities.invokeAndWait(() -> {
+            model.attach(hotel);
+            // Queued behind this task: by the time they run, the attach below has already counted them
+            assertTrue(hotel.bookRoom("a", 1, NIGHT));
+            assertTrue(hotel.bookRoom("b", 2, NIGHT));
+            assertTrue(hotel.cancelReservation("a", 1));
+            model.attach(hotel);
+            assertEquals(1, model.getRowCount());
+        });
+        drain();
+        assertEquals(1, model.getRowCount());
+
+        hotel.bookRoom("c", 3, NIGHT);
+        drain();
+        assertEquals(2, model.getRowCount());
+    }
+
+    @Test
+    void theFilterSkipsARowRemovedBeforeItsEventArrives() throws Exception {
+        ReservationTableModel model = new ReservationTableModel();
+        SwingUtilities.invokeAndWait(() -> model.attach(hotel));
+        assertTrue(hotel.bookRoom("gone", 1, NIGHT));
+        drain();
+        RowFilter<ReservationTableModel, Integer> filter = ReservationTableModel.filter("go", 1, "2030-01", false);
+        RowFilter.Entry<ReservationTableModel, Integer> row0 = new RowFilter.Entry<ReservationTableModel, Integer>() {
+            @Override
+            public ReservationTableModel getModel() {
+                return model;
+            }
+
+            @Override
+            public int getValueCount() {
+                return model.getColumnCount();
+            }
+
+            @Override
+            public Object getValue(int index) {
+                return model.getValueAt(0, index);
+            }
+
+            @Override
+            public Integer getIdentifier() {
+                return 0;
+            }
+        };
+        assertTrue(filter.include(row0));
+        // The table still shows the row until the removal reaches the event thread
+        assertTrue(hotel.cancelReservation("gone", 1));
+        assertFalse(filter.include(row0));
+    }
+}
@@ -0,0 +1,113 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// 1,000 rooms with 1,000 or 10,000 nights of history (1M or 10M reservations, about 3 or 27 years),
+// the last 30 nights in memory and the rest archived. openInMemory loads the same history with nothing
+// archived. The history benchmarks stream archived reservations back; firstReport counts every segment.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ArchiveBenchmark {
+    private static final int ROOMS = 1000;
+    private static final int HOT_NIGHTS = 30;
+
+    @State(Scope.Benchmark)
+    public static class InMemoryState {
+        @Param({"1000000", "10000000"})
+        public int reservations;
+
+        File dir;
+
+        @Setup(Level.Trial)
+        public void copy() throws IOException {
+            dir = Datasets.copy(ROOMS, reservations);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() {
+            Datasets.delete(dir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TieredState {
+        @Param({"1000000", "10000000"})
+        public int reservations;
+
+        File dir;
+        Hotel hotel;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            dir = Datasets.copyArchived(ROOMS, reservations, HOT_NIGHTS);
+            hotel = Datasets.open(dir);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            hotel.close();
+            Datasets.delete(dir);
+        }
+    }
+
+    @Benchmark
+    public int openInMemory(InMemoryState state) {
+        Hotel hotel = Datasets.open(state.dir);
+        int count = hotel.getReservationCount();
+        hotel.close();
+        return count;
+    }
+
+    @Benchmark
+    public int openTiered(TieredState state) {
+        Hotel hotel = Datasets.open(state.dir);
+        int count = hotel.getReservationCount();
+        hotel.close();
+        return count;
+    }
+
+    // The month halfway through the history: one segment decompressed
+    @Benchmark
+    public long historyOneMonth(TieredState state) {
+        LocalDate month = Datasets.nightOf(state.reservations / 2, ROOMS).withDayOfMonth(1);
+        try (Stream<Reservation> stays = state.hotel.reservationHistory(month, month.plusMonths(1).minusDays(1))) {
+            return stays.count();
+        }
+    }
+
+    @Benchmark
+    public long historyAll(TieredState state) {
+        try (Stream<Reservation> stays = state.hotel.reservationHistory(null, null)) {
+            return stays.count();
+        }
+    }
+
+    @Benchmark
+    public void firstReport(TieredState state) {
+        state.hotel.rebuildOccupancy(ForkJoinPool.commonPool());
+    }
+}
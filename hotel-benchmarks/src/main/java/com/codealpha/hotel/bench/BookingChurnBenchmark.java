@@ -0,0 +1,41 @@
+package com.codealpha.hotel.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Book then cancel a night far past the dataset, so the hotel stays the same size. Run with
+// -t 1,2,4,... to see how per-room locking scales across cores.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookingChurnBenchmark {
+    private static final LocalDate CHURN_NIGHT = LocalDate.of(2999, 1, 1);
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Guest {
+        final String name = "churn-" + THREAD_IDS.incrementAndGet();
+        int next;
+    }
+
+    @Benchmark
+    public boolean bookAndCancel(HotelState state, Guest guest) {
+        int room = guest.next++ % state.rooms + 1;
+        LocalDate night = CHURN_NIGHT.plusDays(guest.name.hashCode() & 1023);
+        boolean booked = state.hotel.bookRoom(guest.name, room, night);
+        return booked & state.hotel.cancelReservation(guest.name, room);
+    }
+}
@@ -0,0 +1,64 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.OccupancyCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Date-range availability over 10k rooms x 3 years at ~70% occupancy (about 7.7M booked nights)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CalendarBenchmark {
+    private static final int ROOMS = 10000;
+    private static final int NIGHTS = 3 * 365;
+
+    @Param({"1", "7", "30"})
+    public int stayNights;
+
+    private OccupancyCalendar calendar;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        calendar = new OccupancyCalendar();
+        Random random = new Random(42);
+        for (int room = 1; room <= ROOMS; room++) {
+            for (int night = 0; night < NIGHTS; night++) {
+                if (random.nextInt(10) < 7) {
+                    calendar.mark(room, Datasets.FIRST_NIGHT.plusDays(night));
+                }
+            }
+        }
+    }
+
+    // Scans every room, as Hotel.searchRooms(category, checkIn, checkOut) does for one category
+    @Benchmark
+    public int freeRoomsForStay() {
+        LocalDate checkIn = Datasets.FIRST_NIGHT.plusDays(ThreadLocalRandom.current().nextInt(NIGHTS - stayNights));
+        LocalDate checkOut = checkIn.plusDays(stayNights);
+        int free = 0;
+        for (int room = 1; room <= ROOMS; room++) {
+            if (calendar.isFree(room, checkIn, checkOut)) {
+                free++;
+            }
+        }
+        return free;
+    }
+}
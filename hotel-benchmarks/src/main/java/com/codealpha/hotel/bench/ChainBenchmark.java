@@ -0,0 +1,94 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.HotelChain;
+import com.codealpha.hotel.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// A chain of properties with 100 rooms and 100k reservations each. fanOutSearch asks every property
+// at once on its own thread; sequentialSearch asks the same loaded hotels one after another on the
+// caller's thread. openChain is what starting the chain costs when no property is loaded yet.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ChainBenchmark {
+    private static final int ROOMS = 100;
+    private static final int RESERVATIONS = 100000;
+
+    @State(Scope.Benchmark)
+    public static class ChainState {
+        @Param({"10", "100"})
+        public int properties;
+
+        File root;
+        HotelChain chain;
+        List<Hotel> hotels = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            root = Datasets.copyChain(properties, ROOMS, RESERVATIONS);
+            chain = new HotelChain(root, BookingJournal.Durability.NONE, 0);
+            for (String property : chain.properties()) {
+                hotels.add(chain.hotel(property).join());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            chain.close();
+            Datasets.delete(root);
+        }
+    }
+
+    // One-week stay within the dataset's 1,000 nights
+    private static LocalDate checkIn() {
+        return Datasets.FIRST_NIGHT.plusDays(ThreadLocalRandom.current().nextInt(1000));
+    }
+
+    @Benchmark
+    public HotelChain.SearchResult fanOutSearch(ChainState state) {
+        LocalDate checkIn = checkIn();
+        return state.chain.searchRooms(Room.Category.DELUXE, checkIn, checkIn.plusDays(7), 1000);
+    }
+
+    @Benchmark
+    public int sequentialSearch(ChainState state) {
+        LocalDate checkIn = checkIn();
+        int found = 0;
+        for (Hotel hotel : state.hotels) {
+            found += hotel.searchRooms(Room.Category.DELUXE, checkIn, checkIn.plusDays(7)).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int openChain(ChainState state) {
+        HotelChain chain = new HotelChain(state.root, BookingJournal.Durability.NONE, 0);
+        int properties = chain.properties().size();
+        chain.close();
+        return properties;
+    }
+}
@@ -0,0 +1,164 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BinarySnapshot;
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+import com.codealpha.hotel.Room;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Builds reproducible hotel data directories for the benchmarks. Templates are written once under
+// target/bench-data and copied per trial, because benchmarks mutate the data they load.
+public final class Datasets {
+    public static final LocalDate FIRST_NIGHT = LocalDate.of(2020, 1, 1);
+    private static final File ROOT = new File(System.getProperty("hotel.bench.dataDir", "target/bench-data"));
+
+    private Datasets() {
+    }
+
+    // 50% STANDARD, 30% DELUXE, 20% SUITE, numbered from 1
+    public static Room.Category categoryOf(int roomNumber) {
+        int bucket = (roomNumber - 1) % 10;
+        return bucket < 5 ? Room.Category.STANDARD : bucket < 8 ? Room.Category.DELUXE : Room.Category.SUITE;
+    }
+
+    // Reservation i is guest-i in room (i % rooms) + 1, on consecutive nights per room
+    public static String guestOf(int reservation) {
+        return "guest-" + reservation;
+    }
+
+    public static int roomOf(int reservation, int rooms) {
+        return reservation % rooms + 1;
+    }
+
+    public static LocalDate nightOf(int reservation, int rooms) {
+        return FIRST_NIGHT.plusDays(reservation / rooms);
+    }
+
+    // Fresh, writable copy of the dataset
+    public static File copy(int rooms, int reservations) throws IOException {
+        return copy(template(rooms, reservations, false, false));
+    }
+
+    // The same dataset as Java-serialized rooms.dat and reservations.dat, as written before hotel.snap
+    public static File copyLegacy(int rooms, int reservations) throws IOException {
+        return copy(template(rooms, reservations, true, false));
+    }
+
+    // The dataset, every stay paid, with every night before the last hotNights moved to the archive
+    public static File copyArchived(int rooms, int reservations, int hotNights) throws IOException {
+        return copy(archivedTemplate(rooms, reservations, hotNights));
+    }
+
+    // A chain root holding the dataset once per property, in subdirectories prop-000, prop-001, ...
+    public static File copyChain(int properties, int rooms, int reservations) throws IOException {
+        File template = template(rooms, reservations, false, false);
+        Path root = Files.createTempDirectory("hotel-bench-chain-");
+        for (int i = 0; i < properties; i++) {
+            copy(template, Files.createDirectory(root.resolve(String.format("prop-%03d", i))));
+        }
+        return root.toFile();
+    }
+
+    private static File copy(File template) throws IOException {
+        return copy(template, Files.createTempDirectory("hotel-bench-"));
+    }
+
+    private static File copy(File template, Path target) throws IOException {
+        for (File file : template.listFiles()) {
+            if (file.getName().startsWith(".")) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                copy(file, Files.createDirectories(target.resolve(file.getName())));
+            } else {
+                Files.copy(file.toPath(), target.resolve(file.getName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return target.toFile();
+    }
+
+    // Never rolls over on its own: the datasets start in 2020, so every night would be archived on open
+    public static Hotel open(File dir) {
+        return open(dir, BookingJournal.Durability.NONE, 0);
+    }
+
+    public static Hotel open(File dir, BookingJournal.Durability durability, long groupCommitMillis) {
+        return new Hotel(dir, durability, groupCommitMillis, -1);
+    }
+
+    public static void delete(File dir) {
+        try (Stream<Path> paths = Files.walk(dir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static synchronized File archivedTemplate(int rooms, int reservations, int hotNights) throws IOException {
+        File dir = new File(ROOT, rooms + "-rooms-" + reservations + "-reservations-" + hotNights + "-hot");
+        File done = new File(dir, ".complete");
+        if (done.exists()) {
+            return dir;
+        }
+        if (dir.exists()) {
+            delete(dir);
+        }
+        // Unpaid stays are never archived
+        copy(template(rooms, reservations, false, true), Files.createDirectories(dir.toPath()));
+        Hotel hotel = open(dir);
+        hotel.archiveBefore(nightOf(reservations - 1, rooms).minusDays(hotNights - 1));
+        hotel.close();
+        Files.createFile(done.toPath());
+        return dir;
+    }
+
+    private static synchronized File template(int rooms, int reservations, boolean legacy, boolean paid) throws IOException {
+        File dir = new File(ROOT, rooms + "-rooms-" + reservations + "-reservations" + (legacy ? "-legacy" : "")
+            + (paid ? "-paid" : ""));
+        File done = new File(dir, ".complete");
+        if (done.exists()) {
+            return dir;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        List<Room> roomList = new ArrayList<>(rooms);
+        for (int n = 1; n <= rooms; n++) {
+            roomList.add(new Room(n, categoryOf(n)));
+        }
+        List<Reservation> reservationList = new ArrayList<>(reservations);
+        for (int i = 0; i < reservations; i++) {
+            Room room = roomList.get(roomOf(i, rooms) - 1);
+            Reservation res = new Reservation(guestOf(i), room, nightOf(i, rooms));
+            res.setPaid(paid);
+            reservationList.add(res);
+        }
+        if (legacy) {
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(new File(dir, "rooms.dat")))) {
+                out.writeObject(roomList);
+            }
+            try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(new File(dir, "reservations.dat")))) {
+                out.writeObject(reservationList);
+                out.writeLong(0);
+            }
+        } else {
+            BinarySnapshot.write(new File(dir, BinarySnapshot.FILE), roomList, reservationList, 0);
+        }
+        Files.createFile(done.toPath());
+        return dir;
+    }
+}
@@ -0,0 +1,111 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Guest-name type-ahead at 1M and 10M reservations (10k rooms), one distinct guest per reservation.
+// A prefix is what a clerk has typed of an existing guest's name, in another case, so it matches that
+// guest and up to a few dozen more. linearScan answers the same query by reading every reservation, as
+// the front desk had to without the index; bookNewGuest is a booking and cancellation of a guest the
+// index has not seen, with the index live. Setup prints how long the first query took to build it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class GuestSearchBenchmark {
+    private static final int ROOMS = 10000;
+    private static final int LIMIT = 10;
+
+    @State(Scope.Benchmark)
+    public static class GuestState {
+        @Param({"1000000", "10000000"})
+        public int reservations;
+
+        File dir;
+        Hotel hotel;
+        final AtomicLong newGuests = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            dir = Datasets.copy(ROOMS, reservations);
+            hotel = Datasets.open(dir);
+            long start = System.nanoTime();
+            hotel.suggestGuests("", 0);
+            System.out.printf("%nIndexing %,d guest names took %,d ms%n", reservations, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            hotel.close();
+            Datasets.delete(dir);
+        }
+
+        // "GUEST-" and the first five digits of a guest's number, e.g. "GUEST-48213" for guest-4821377
+        String prefix() {
+            String digits = Integer.toString(ThreadLocalRandom.current().nextInt(reservations));
+            return "GUEST-" + digits.substring(0, Math.min(5, digits.length()));
+        }
+    }
+
+    @Benchmark
+    public List<String> indexed(GuestState state) {
+        return state.hotel.suggestGuests(state.prefix(), LIMIT);
+    }
+
+    // The first LIMIT matches in the index's order need every match, so the scan cannot stop early
+    @Benchmark
+    public List<String> linearScan(GuestState state) {
+        String prefix = state.prefix();
+        TreeSet<String> found = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        // Benchmark threads only read, so the live view is safe here
+        List<Reservation> all = state.hotel.getReservations();
+        for (int i = 0; i < all.size(); i++) {
+            String name = all.get(i).getGuestName();
+            if (name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                found.add(name);
+            }
+        }
+        List<String> first = new ArrayList<>(LIMIT);
+        for (String name : found) {
+            if (first.size() == LIMIT) {
+                break;
+            }
+            first.add(name);
+        }
+        return first;
+    }
+
+    // Past the end of the dataset, so the room is always free
+    @Benchmark
+    public boolean bookNewGuest(GuestState state) {
+        String guest = "walk-in-" + state.newGuests.incrementAndGet();
+        int room = 1 + ThreadLocalRandom.current().nextInt(ROOMS);
+        LocalDate night = Datasets.FIRST_NIGHT.plusDays(2000 + ThreadLocalRandom.current().nextInt(365));
+        state.hotel.bookRoom(guest, room, night);
+        return state.hotel.cancelReservation(guest, room);
+    }
+}
@@ -0,0 +1,77 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.Reservation;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+
+// Retained heap of a loaded Hotel, of the same reservations materialized as Reservation objects, and of
+// the same history with all but the last hotNights nights archived.
+// Not a JMH benchmark: run with
+//   java -Xmx8g -cp hotel-benchmarks/target/benchmarks.jar com.codealpha.hotel.bench.HeapFootprint [reservations] [rooms] [hotNights]
+public final class HeapFootprint {
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int reservations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int hotNights = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        // The small one first: freeing the large one leaves more noise than the small one weighs
+        tiered(reservations, rooms, hotNights);
+        inMemory(reservations, rooms);
+    }
+
+    // Each measurement runs in its own frame so nothing from the previous one is still reachable
+    private static void inMemory(int reservations, int rooms) throws Exception {
+        File dir = Datasets.copy(rooms, reservations);
+        try {
+            long baseline = usedAfterGc();
+            long start = System.nanoTime();
+            Hotel hotel = Datasets.open(dir);
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+            long loaded = usedAfterGc();
+            report("Hotel", reservations, loaded - baseline);
+            System.out.printf("  loaded in %d ms%n", loadMillis);
+
+            List<Reservation> objects = hotel.snapshotReservations();
+            report("Hotel + materialized Reservation objects", reservations, usedAfterGc() - baseline);
+            System.out.printf("  %,d objects hold %,d extra bytes%n", objects.size(), usedAfterGc() - loaded);
+            hotel.close();
+        } finally {
+            Datasets.delete(dir);
+        }
+    }
+
+    private static void tiered(int reservations, int rooms, int hotNights) throws Exception {
+        File dir = Datasets.copyArchived(rooms, reservations, hotNights);
+        try {
+            long baseline = usedAfterGc();
+            long start = System.nanoTime();
+            Hotel hotel = Datasets.open(dir);
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+            report("Hotel, last " + hotNights + " nights in memory", reservations, usedAfterGc() - baseline);
+            System.out.printf("  loaded in %d ms; %,d in memory, %,d archived in %,d KB%n", loadMillis,
+                hotel.getReservationCount(), hotel.getArchivedReservationCount(), hotel.getArchiveBytes() >> 10);
+            hotel.close();
+        } finally {
+            Datasets.delete(dir);
+        }
+    }
+
+    private static void report(String what, int reservations, long bytes) {
+        System.out.printf("%s: %,d reservations retain %,d MB (%d bytes per reservation)%n",
+            what, reservations, bytes >> 20, reservations == 0 ? 0 : bytes / reservations);
+    }
+
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
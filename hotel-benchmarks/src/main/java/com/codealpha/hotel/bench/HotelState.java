@@ -0,0 +1,37 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+// A loaded Hotel over a generated dataset, shared by all benchmark threads of a trial
+@State(Scope.Benchmark)
+public class HotelState {
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    @Param({"0", "100000", "5000000"})
+    public int reservations;
+
+    public File dir;
+    public Hotel hotel;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        dir = Datasets.copy(rooms, reservations);
+        hotel = Datasets.open(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        hotel.close();
+        Datasets.delete(dir);
+    }
+}
@@ -0,0 +1,87 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.ReservationCsv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Streaming CSV import of 1M bookings (1000 rooms x 1000 nights) into an empty hotel, one shot per
+// iteration; rows/s is rows divided by the reported time
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+    private static final int ROOMS = 1000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"BEST_EFFORT", "ALL_OR_NOTHING"})
+    public Hotel.BatchMode mode;
+
+    @Param({"NONE", "FSYNC_EACH"})
+    public BookingJournal.Durability durability;
+
+    private File csv;
+    private File dir;
+    private Hotel hotel;
+
+    @Setup(Level.Trial)
+    public void writeCsv() throws IOException {
+        csv = File.createTempFile("hotel-import-", ".csv");
+        try (Writer out = Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8)) {
+            out.write(ReservationCsv.HEADER + "\n");
+            for (int i = 0; i < rows; i++) {
+                out.write("BOOK," + Datasets.guestOf(i) + "," + Datasets.roomOf(i, ROOMS) + ","
+                    + Datasets.nightOf(i, ROOMS) + "," + (i % 2 == 0) + "\n");
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        dir = Datasets.copy(ROOMS, 0);
+        hotel = Datasets.open(dir, durability, 5);
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() {
+        hotel.close();
+        Datasets.delete(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() {
+        csv.delete();
+    }
+
+    @Benchmark
+    public ReservationCsv.ImportResult importCsv() throws IOException {
+        try (Reader in = Files.newBufferedReader(csv.toPath(), StandardCharsets.UTF_8)) {
+            return ReservationCsv.importCsv(hotel, in, mode, ReservationCsv.DEFAULT_CHUNK, null);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.LatencyHistogram;
+import com.codealpha.hotel.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Cost of timing operations: the same calls with metrics on and off. Durability NONE keeps fsync
+// out of pay() so the few nanoseconds of bookkeeping are not lost in disk noise.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MetricsBenchmark {
+    private static final int ROOMS = 1000;
+    private static final int RESERVATIONS = 100000;
+
+    @State(Scope.Benchmark)
+    public static class MetricsState {
+        @Param({"true", "false"})
+        public boolean metrics;
+
+        File dir;
+        Hotel hotel;
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            dir = Datasets.copy(ROOMS, RESERVATIONS);
+            hotel = Datasets.open(dir);
+            hotel.getMetrics().setEnabled(metrics);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            hotel.close();
+            Datasets.delete(dir);
+        }
+    }
+
+    @Benchmark
+    public boolean pay(MetricsState state) {
+        int i = ThreadLocalRandom.current().nextInt(RESERVATIONS);
+        return state.hotel.payReservation(Datasets.guestOf(i), Datasets.roomOf(i, ROOMS));
+    }
+
+    // One-week stay starting anywhere in the first year of the dataset
+    @Benchmark
+    public List<Room> search(MetricsState state) {
+        LocalDate checkIn = Datasets.FIRST_NIGHT.plusDays(ThreadLocalRandom.current().nextInt(365));
+        return state.hotel.searchRooms(Room.Category.DELUXE, checkIn, checkIn.plusDays(7));
+    }
+
+    // The histogram alone, without the two clock reads around it
+    @Benchmark
+    public void record(MetricsState state) {
+        state.histogram.record(ThreadLocalRandom.current().nextInt(1_000_000));
+    }
+}
@@ -0,0 +1,73 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BatchOperation;
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Pays a random existing reservation (a guaranteed miss when the dataset has none), and a random room
+// of one guest who holds many bookings, such as a company account
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PaymentBenchmark {
+    private static final int ACCOUNT_ROOMS = 100;
+
+    @State(Scope.Benchmark)
+    public static class Account {
+        @Param({"10", "1000", "100000"})
+        public int bookings;
+
+        File dir;
+        Hotel hotel;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            dir = Datasets.copy(ACCOUNT_ROOMS, 0);
+            hotel = Datasets.open(dir, BookingJournal.Durability.NONE, 0);
+            List<BatchOperation> ops = new ArrayList<>(bookings);
+            for (int i = 0; i < bookings; i++) {
+                ops.add(BatchOperation.book("account", i % ACCOUNT_ROOMS + 1, Datasets.FIRST_NIGHT.plusDays(i / ACCOUNT_ROOMS)));
+            }
+            hotel.applyBatch(ops, Hotel.BatchMode.BEST_EFFORT);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            hotel.close();
+            Datasets.delete(dir);
+        }
+    }
+
+    @Benchmark
+    public boolean pay(HotelState state) {
+        int i = ThreadLocalRandom.current().nextInt(Math.max(1, state.reservations));
+        return state.hotel.payReservation(Datasets.guestOf(i), Datasets.roomOf(i, state.rooms));
+    }
+
+    @Benchmark
+    public boolean payAccount(Account account) {
+        return account.hotel.payReservation("account", ThreadLocalRandom.current().nextInt(ACCOUNT_ROOMS) + 1);
+    }
+}
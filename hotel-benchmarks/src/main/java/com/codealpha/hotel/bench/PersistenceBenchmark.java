@@ -0,0 +1,70 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Cold start (load snapshot and replay journal) and full snapshot save, one shot per iteration
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+    @Param({"10", "1000", "100000"})
+    public int rooms;
+
+    @Param({"0", "100000", "5000000"})
+    public int reservations;
+
+    private File dir;
+    private Hotel loaded;
+
+    @Setup(Level.Trial)
+    public void copy() throws IOException {
+        dir = Datasets.copy(rooms, reservations);
+    }
+
+    @Setup(Level.Iteration)
+    public void open() {
+        loaded = Datasets.open(dir);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeLoaded() {
+        loaded.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        Datasets.delete(dir);
+    }
+
+    @Benchmark
+    public Hotel coldStart() {
+        Hotel hotel = Datasets.open(dir);
+        hotel.close();
+        return hotel;
+    }
+
+    @Benchmark
+    public void save() {
+        loaded.compact();
+    }
+}
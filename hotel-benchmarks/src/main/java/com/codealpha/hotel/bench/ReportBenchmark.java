@@ -0,0 +1,103 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.OccupancyReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Occupancy reporting over 10M reservations (10k rooms, 1,000 nights each). fullScan is the parallel
+// recount a first report pays, at 1 to 8 fork-join workers; the others run against counts that are
+// already built and kept current, as every report after the first does.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ReportBenchmark {
+    private static final int ROOMS = 10000;
+
+    @State(Scope.Benchmark)
+    public static class ReportState {
+        @Param({"10000000"})
+        public int reservations;
+
+        File dir;
+        Hotel hotel;
+
+        @Setup(Level.Trial)
+        public void load() throws IOException {
+            dir = Datasets.copy(ROOMS, reservations);
+            hotel = Datasets.open(dir);
+            hotel.rebuildOccupancy(ForkJoinPool.commonPool());
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            hotel.close();
+            Datasets.delete(dir);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ScanState extends ReportState {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void start() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void fullScan(ScanState state) {
+        state.hotel.rebuildOccupancy(state.pool);
+    }
+
+    @Benchmark
+    public OccupancyReport monthlyAllHistory(ReportState state) {
+        return state.hotel.occupancyReport(OccupancyReport.Granularity.MONTH, null, null);
+    }
+
+    @Benchmark
+    public OccupancyReport dailyOneYear(ReportState state) {
+        return state.hotel.occupancyReport(OccupancyReport.Granularity.DAY, Datasets.FIRST_NIGHT, Datasets.FIRST_NIGHT.plusDays(364));
+    }
+
+    // A booking past the end of the dataset, the report that picks it up, and the cancellation:
+    // the incremental path a live dashboard takes instead of a rescan
+    @Benchmark
+    public OccupancyReport bookThenReport(ReportState state) {
+        int room = 1 + ThreadLocalRandom.current().nextInt(ROOMS);
+        LocalDate night = Datasets.FIRST_NIGHT.plusDays(2000 + ThreadLocalRandom.current().nextInt(365));
+        state.hotel.bookRoom("bench-guest", room, night);
+        OccupancyReport report = state.hotel.occupancyReport(OccupancyReport.Granularity.MONTH, night, night);
+        state.hotel.cancelReservation("bench-guest", room);
+        return report;
+    }
+}
@@ -0,0 +1,46 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.Room;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    // Reads the whole result, as a caller rendering it would
+    @Benchmark
+    public int byCategory(HotelState state) {
+        List<Room> rooms = state.hotel.searchRooms(Room.Category.DELUXE);
+        int sum = 0;
+        for (int i = 0; i < rooms.size(); i++) {
+            sum += rooms.get(i).getRoomNumber();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int roomsLeft(HotelState state) {
+        return state.hotel.availableRoomCount(Room.Category.DELUXE);
+    }
+
+    // One-week stay starting anywhere in the first year of the dataset
+    @Benchmark
+    public List<Room> byCategoryAndWeek(HotelState state) {
+        LocalDate checkIn = Datasets.FIRST_NIGHT.plusDays(ThreadLocalRandom.current().nextInt(365));
+        return state.hotel.searchRooms(Room.Category.DELUXE, checkIn, checkIn.plusDays(7));
+    }
+}
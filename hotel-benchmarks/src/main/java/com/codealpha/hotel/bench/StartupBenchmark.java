@@ -0,0 +1,71 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BinarySnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.concurrent.TimeUnit;
+
+// Decoding the same dataset from the binary snapshot (into columns, as Hotel loads it) versus the old
+// Java-serialized .dat files (into one object per reservation)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    @Param({"1000"})
+    public int rooms;
+
+    @Param({"100000", "1000000", "5000000"})
+    public int reservations;
+
+    private File binaryDir;
+    private File legacyDir;
+
+    @Setup(Level.Trial)
+    public void copy() throws IOException {
+        binaryDir = Datasets.copy(rooms, reservations);
+        legacyDir = Datasets.copyLegacy(rooms, reservations);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        Datasets.delete(binaryDir);
+        Datasets.delete(legacyDir);
+    }
+
+    @Benchmark
+    public BinarySnapshot.Contents binarySnapshot() throws IOException {
+        return BinarySnapshot.read(new File(binaryDir, BinarySnapshot.FILE));
+    }
+
+    @Benchmark
+    public Object[] javaSerialization() throws IOException, ClassNotFoundException {
+        Object[] loaded = new Object[2];
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(new File(legacyDir, "rooms.dat"))))) {
+            loaded[0] = in.readObject();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(new File(legacyDir, "reservations.dat"))))) {
+            loaded[1] = in.readObject();
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,682 @@
+package com.codealpha.hotel.bench;
+
+import com.codealpha.hotel.BatchOperation;
+import com.codealpha.hotel.BatchResult;
+import com.codealpha.hotel.BookingJournal;
+import com.codealpha.hotel.Hotel;
+import com.codealpha.hotel.LatencyHistogram;
+import com.codealpha.hotel.Reservation;
+import com.codealpha.hotel.Room;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// A simulated day at the front desk against one Hotel: desks (threads) search, book, cancel and pay through
+// a sequence of phases, a check-in rush, a cancellation wave, a night-audit payment run, between steady
+// traffic. Each desk draws its requests from a Random seeded with the seed and its number, so a seed always
+// produces the same requests; with one desk the outcomes and the final state are the same every run too,
+// and the result's fingerprint shows it. With a rate, requests are sent on a fixed schedule and latency is
+// counted from when each was due, so a stall shows up in the percentiles instead of just slowing the run.
+// Afterwards it checks that no night is booked twice, that every desk's bookings are there as it was told,
+// that Room.isAvailable and both searches agree with the reservations, and that a reopened directory holds
+// the same state. Writes throughput, latency percentiles, allocation and persisted bytes as JSON, and exits
+// with status 1 if a check fails.
+// Not a JMH benchmark: run with
+//   java -cp hotel-benchmarks/target/benchmarks.jar com.codealpha.hotel.bench.WorkloadSimulator [options]
+// Options, with their defaults:
+//   --rooms 1000 --reservations 100000     the dataset to start from, as in the JMH benchmarks
+//   --threads 4 --operations 200000        operations in total, split evenly across desks
+//   --rate 0                               operations per second across all desks; 0 sends them flat out
+//   --seed 42
+//   --day steady:40,rush:15,steady:15,cancellations:10,payments:10,steady:10
+//                                          phases and their share of each desk's operations
+//   --mix search:60,book:25,cancel:10,pay:5  the steady phase's mix
+//   --durability NONE                      or GROUP_COMMIT, FSYNC_EACH
+//   --out workload-result.json
+public final class WorkloadSimulator {
+    private static final int HORIZON_NIGHTS = 90;
+    private static final int PAY_BATCH = 50;
+    private static final int SEARCH_CHECKS = 200;
+    // Desk bookings are "desk<n>-<operation>"; the dataset's guests are "guest-<n>"
+    private static final String GUEST_PREFIX = "desk";
+
+    // A search counts as refused when it finds nothing free, a payment batch when any row failed
+    enum Op { SEARCH, BOOK, CANCEL, PAY, PAY_BATCH }
+
+    // Percentages of search, book, cancel and pay, and the nights asked for: the next few for walk-ins and
+    // arrivals during the rush, anywhere in the next 90 otherwise. The wave cancels four times as often as
+    // steady traffic; much more and the desks have little left to pay for in the night audit.
+    enum Phase {
+        STEADY(60, 25, 10, 5, HORIZON_NIGHTS),
+        RUSH(35, 60, 0, 5, 3),
+        CANCELLATIONS(40, 20, 40, 0, HORIZON_NIGHTS),
+        PAYMENTS(10, 0, 0, 90, HORIZON_NIGHTS);
+
+        final int[] mix;
+        final int nights;
+
+        Phase(int search, int book, int cancel, int pay, int nights) {
+            this.mix = new int[] { search, book, cancel, pay };
+            this.nights = nights;
+        }
+
+        String displayName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // One desk's booking; no one else touches it, so the desk's list is the truth to check against
+    private static final class Booking {
+        final String guest;
+        final int room;
+        final LocalDate night;
+        boolean paid;
+
+        Booking(String guest, int room, LocalDate night) {
+            this.guest = guest;
+            this.room = room;
+            this.night = night;
+        }
+    }
+
+    private static final class Config {
+        int rooms = 1000;
+        int reservations = 100000;
+        int threads = 4;
+        int operations = 200000;
+        double rate;
+        long seed = 42;
+        List<Phase> phases = new ArrayList<>();
+        List<Integer> shares = new ArrayList<>();
+        int[] steadyMix = Phase.STEADY.mix.clone();
+        BookingJournal.Durability durability = BookingJournal.Durability.NONE;
+        File out = new File("workload-result.json");
+    }
+
+    private final Config config;
+    private final LocalDate today;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Op.values().length];
+    private final LongAdder[] succeeded = new LongAdder[Op.values().length];
+    private final LongAdder[] refused = new LongAdder[Op.values().length];
+    private final LongAdder batchRows = new LongAdder();
+    // [desk][phase index] start and end, for per-phase throughput
+    private final long[][] phaseStart;
+    private final long[][] phaseEnd;
+    private final long[][] phaseOps;
+    private final long[] allocated;
+    private final List<List<Booking>> bookings = new ArrayList<>();
+    private Hotel hotel;
+
+    private WorkloadSimulator(Config config) {
+        this.config = config;
+        // The dataset fills every room up to here; the simulated day starts the night after
+        this.today = Datasets.FIRST_NIGHT.plusDays((config.reservations + config.rooms - 1) / config.rooms);
+        for (Op op : Op.values()) {
+            latencies[op.ordinal()] = new LatencyHistogram();
+            succeeded[op.ordinal()] = new LongAdder();
+            refused[op.ordinal()] = new LongAdder();
+        }
+        phaseStart = new long[config.threads][config.phases.size()];
+        phaseEnd = new long[config.threads][config.phases.size()];
+        phaseOps = new long[config.threads][config.phases.size()];
+        allocated = new long[config.threads];
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = parse(args);
+        WorkloadSimulator simulator = new WorkloadSimulator(config);
+        File dir = Datasets.copy(config.rooms, config.reservations);
+        boolean passed;
+        try {
+            passed = simulator.run(dir);
+        } finally {
+            Datasets.delete(dir);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static Config parse(String[] args) {
+        Config config = new Config();
+        String day = "steady:40,rush:15,steady:15,cancellations:10,payments:10,steady:10";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--rooms": config.rooms = Integer.parseInt(value); break;
+                case "--reservations": config.reservations = Integer.parseInt(value); break;
+                case "--threads": config.threads = Integer.parseInt(value); break;
+                case "--operations": config.operations = Integer.parseInt(value); break;
+                case "--rate": config.rate = Double.parseDouble(value); break;
+                case "--seed": config.seed = Long.parseLong(value); break;
+                case "--day": day = value; break;
+                case "--mix": config.steadyMix = parseMix(value); break;
+                case "--durability": config.durability = BookingJournal.Durability.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "--out": config.out = new File(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Missing value for " + args[args.length - 1]);
+        }
+        int total = 0;
+        for (String part : day.split(",")) {
+            String[] kv = part.trim().split(":");
+            config.phases.add(Phase.valueOf(kv[0].toUpperCase(Locale.ROOT)));
+            config.shares.add(Integer.parseInt(kv[1]));
+            total += Integer.parseInt(kv[1]);
+        }
+        if (total != 100) {
+            throw new IllegalArgumentException("Phase shares add up to " + total + ", not 100");
+        }
+        if (config.rooms < 1 || config.threads < 1 || config.operations < config.threads) {
+            throw new IllegalArgumentException("Need at least one room, one thread and one operation per thread");
+        }
+        return config;
+    }
+
+    private static int[] parseMix(String value) {
+        int[] mix = new int[4];
+        for (String part : value.split(",")) {
+            String[] kv = part.trim().split(":");
+            mix[Op.valueOf(kv[0].toUpperCase(Locale.ROOT)).ordinal()] = Integer.parseInt(kv[1]);
+        }
+        if (mix[0] + mix[1] + mix[2] + mix[3] != 100) {
+            throw new IllegalArgumentException("Mix " + value + " does not add up to 100");
+        }
+        return mix;
+    }
+
+    private boolean run(File dir) throws Exception {
+        hotel = Datasets.open(dir, config.durability, 5);
+        List<String> problems = new ArrayList<>();
+        long persistedBefore = hotel.getMetrics().bytesPersisted();
+        long[] gcBefore = gcTotals();
+
+        List<Thread> desks = new ArrayList<>();
+        Throwable[] failure = new Throwable[1];
+        long start = System.nanoTime();
+        for (int t = 0; t < config.threads; t++) {
+            final int desk = t;
+            List<Booking> mine = new ArrayList<>();
+            bookings.add(mine);
+            Thread thread = new Thread(() -> desk(desk, mine, start), "desk-" + t);
+            thread.setUncaughtExceptionHandler((th, e) -> {
+                synchronized (failure) {
+                    failure[0] = e;
+                }
+            });
+            desks.add(thread);
+        }
+        for (Thread thread : desks) {
+            thread.start();
+        }
+        for (Thread thread : desks) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (failure[0] != null) {
+            problems.add("A desk failed: " + failure[0]);
+        }
+        long persisted = hotel.getMetrics().bytesPersisted() - persistedBefore;
+        long[] gc = gcTotals();
+
+        String fingerprint = check(problems);
+        hotel.close();
+        Hotel reopened = Datasets.open(dir, config.durability, 5);
+        String recovered = fingerprint(reopened.snapshotReservations());
+        reopened.close();
+        if (!recovered.equals(fingerprint)) {
+            problems.add("Reopened directory holds a different state: " + recovered + " instead of " + fingerprint);
+        }
+
+        String json = json(seconds, persisted, dirBytes(dir), gc[0] - gcBefore[0], gc[1] - gcBefore[1], fingerprint, problems);
+        Files.write(config.out.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        summarize(seconds, persisted, fingerprint);
+        for (String problem : problems.subList(0, Math.min(20, problems.size()))) {
+            System.out.println("FAIL: " + problem);
+        }
+        System.out.println((problems.isEmpty() ? "OK" : problems.size() + " problems") + ", results in " + config.out);
+        return problems.isEmpty();
+    }
+
+    private void desk(int desk, List<Booking> mine, long start) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threads);
+        Random random = new Random(config.seed * 1_000_003 + desk);
+        int operations = config.operations / config.threads + (desk < config.operations % config.threads ? 1 : 0);
+        // Desks start a fraction of an interval apart so a fixed rate does not arrive in bursts
+        long interval = config.rate > 0 ? (long) (1e9 * config.threads / config.rate) : 0;
+        long due = start + interval * desk / config.threads;
+        int phase = -1;
+        long phaseLimit = 0;
+        int shareSoFar = 0;
+        for (int k = 0; k < operations; k++) {
+            while (k >= phaseLimit) {
+                if (phase >= 0) {
+                    phaseEnd[desk][phase] = System.nanoTime();
+                }
+                phase++;
+                shareSoFar += config.shares.get(phase);
+                phaseLimit = (long) operations * shareSoFar / 100;
+                phaseStart[desk][phase] = System.nanoTime();
+            }
+            Phase current = config.phases.get(phase);
+            long began;
+            if (interval > 0) {
+                for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                    LockSupport.parkNanos(wait);
+                }
+                began = due;
+                due += interval;
+            } else {
+                began = System.nanoTime();
+            }
+            Op op = pick(current, random.nextInt(100), mine);
+            boolean ok = apply(op, current, desk, k, random, mine);
+            latencies[op.ordinal()].record(System.nanoTime() - began);
+            (ok ? succeeded : refused)[op.ordinal()].increment();
+            phaseOps[desk][phase]++;
+        }
+        // The last phase, and any empty ones after it, end now
+        long now = System.nanoTime();
+        for (int p = phase; p < config.phases.size(); p++) {
+            if (p > phase) {
+                phaseStart[desk][p] = now;
+            }
+            phaseEnd[desk][p] = now;
+        }
+        allocated[desk] = allocatedBytes(threads) - allocatedBefore;
+    }
+
+    // Cancelling or paying with nothing booked yet books instead
+    private Op pick(Phase phase, int roll, List<Booking> mine) {
+        int[] mix = phase == Phase.STEADY ? config.steadyMix : phase.mix;
+        Op op = Op.PAY;
+        for (int i = 0, sum = 0; i < mix.length; i++) {
+            sum += mix[i];
+            if (roll < sum) {
+                op = Op.values()[i];
+                break;
+            }
+        }
+        if ((op == Op.CANCEL || op == Op.PAY) && mine.isEmpty()) {
+            return Op.BOOK;
+        }
+        return op == Op.PAY && phase == Phase.PAYMENTS ? Op.PAY_BATCH : op;
+    }
+
+    private boolean apply(Op op, Phase phase, int desk, int k, Random random, List<Booking> mine) {
+        switch (op) {
+            case SEARCH: {
+                Room.Category category = Room.Category.values()[random.nextInt(Room.Category.values().length)];
+                LocalDate checkIn = today.plusDays(random.nextInt(phase.nights));
+                return !hotel.searchRooms(category, checkIn, checkIn.plusDays(1 + random.nextInt(3))).isEmpty();
+            }
+            case BOOK: {
+                Booking booking = new Booking(GUEST_PREFIX + desk + "-" + k, 1 + random.nextInt(config.rooms),
+                    today.plusDays(random.nextInt(phase.nights)));
+                if (!hotel.bookRoom(booking.guest, booking.room, booking.night)) {
+                    return false;
+                }
+                mine.add(booking);
+                return true;
+            }
+            case CANCEL: {
+                // Swap-remove keeps the choice of later bookings independent of list order details
+                int index = random.nextInt(mine.size());
+                Booking booking = mine.get(index);
+                if (!hotel.cancelReservation(booking.guest, booking.room)) {
+                    return false;
+                }
+                mine.set(index, mine.get(mine.size() - 1));
+                mine.remove(mine.size() - 1);
+                return true;
+            }
+            case PAY: {
+                Booking booking = mine.get(random.nextInt(mine.size()));
+                if (!hotel.payReservation(booking.guest, booking.room)) {
+                    return false;
+                }
+                booking.paid = true;
+                return true;
+            }
+            default: {
+                List<Booking> batch = new ArrayList<>(PAY_BATCH);
+                List<BatchOperation> ops = new ArrayList<>(PAY_BATCH);
+                for (int i = 0; i < PAY_BATCH && i < mine.size(); i++) {
+                    Booking booking = mine.get(random.nextInt(mine.size()));
+                    batch.add(booking);
+                    ops.add(BatchOperation.pay(booking.guest, booking.room));
+                }
+                BatchResult result = hotel.applyBatch(ops, Hotel.BatchMode.BEST_EFFORT);
+                batchRows.add(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (result.succeeded(i)) {
+                        batch.get(i).paid = true;
+                    }
+                }
+                return result.successCount() == batch.size();
+            }
+        }
+    }
+
+    // Returns the fingerprint of the final reservations
+    private String check(List<String> problems) {
+        List<Reservation> all = hotel.snapshotReservations();
+        Map<String, Booking> expected = new HashMap<>();
+        for (List<Booking> mine : bookings) {
+            for (Booking booking : mine) {
+                expected.put(booking.guest, booking);
+            }
+        }
+        // room -> nights booked, in epoch days
+        Map<Integer, Set<Long>> nights = new HashMap<>();
+        int simulated = 0;
+        for (Reservation res : all) {
+            int room = res.getRoom().getRoomNumber();
+            if (!nights.computeIfAbsent(room, r -> new HashSet<>()).add(res.getDate().toEpochDay())) {
+                problems.add("Room " + room + " booked twice on " + res.getDate());
+            }
+            if (res.getRoom().isAvailable()) {
+                problems.add("Room " + room + " is marked available but booked on " + res.getDate());
+            }
+            if (!res.getGuestName().startsWith(GUEST_PREFIX)) {
+                continue;
+            }
+            simulated++;
+            Booking want = expected.get(res.getGuestName());
+            if (want == null || want.room != room || !want.night.equals(res.getDate())) {
+                problems.add("Unexpected reservation " + res);
+            } else if (want.paid != res.isPaid()) {
+                problems.add("Wrong paid flag on " + res);
+            }
+        }
+        if (simulated != expected.size()) {
+            problems.add(expected.size() + " reservations made by desks, " + simulated + " found");
+        }
+        if (all.size() - simulated != config.reservations) {
+            problems.add(config.reservations + " reservations in the dataset, " + (all.size() - simulated) + " left");
+        }
+
+        int available = 0;
+        for (Room.Category category : Room.Category.values()) {
+            List<Room> free = new ArrayList<>(hotel.searchRooms(category));
+            if (free.size() != hotel.availableRoomCount(category)) {
+                problems.add(category + ": " + free.size() + " rooms listed available but the count says " + hotel.availableRoomCount(category));
+            }
+            for (Room room : free) {
+                if (!room.isAvailable() || nights.containsKey(room.getRoomNumber())) {
+                    problems.add("Room " + room.getRoomNumber() + " is listed available but has bookings");
+                }
+            }
+            available += free.size();
+        }
+        if (available + nights.size() != config.rooms) {
+            problems.add(available + " rooms available and " + nights.size() + " booked, out of " + config.rooms);
+        }
+
+        // Date-range searches must list exactly the rooms of the category with none of the nights booked
+        Random random = new Random(config.seed);
+        for (int i = 0; i < SEARCH_CHECKS; i++) {
+            Room.Category category = Room.Category.values()[random.nextInt(Room.Category.values().length)];
+            LocalDate checkIn = today.plusDays(random.nextInt(HORIZON_NIGHTS));
+            LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(3));
+            Set<Integer> listed = new HashSet<>();
+            for (Room room : hotel.searchRooms(category, checkIn, checkOut)) {
+                listed.add(room.getRoomNumber());
+            }
+            for (int room = 1; room <= config.rooms; room++) {
+                if (Datasets.categoryOf(room) != category) {
+                    continue;
+                }
+                boolean free = true;
+                Set<Long> booked = nights.get(room);
+                for (long night = checkIn.toEpochDay(); booked != null && night < checkOut.toEpochDay(); night++) {
+                    free &= !booked.contains(night);
+                }
+                if (free != listed.contains(room)) {
+                    problems.add("Search " + category + " " + checkIn + " to " + checkOut + (free ? " missed" : " listed booked") + " room " + room);
+                }
+            }
+        }
+        return fingerprint(all);
+    }
+
+    // SHA-256 of the reservations sorted by room and night; equal fingerprints mean equal final states
+    private static String fingerprint(List<Reservation> all) {
+        List<String> lines = new ArrayList<>(all.size());
+        for (Reservation res : all) {
+            lines.add(String.format("%08d %s %s %b", res.getRoom().getRoomNumber(), res.getDate(), res.getGuestName(), res.isPaid()));
+        }
+        Collections.sort(lines);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : lines) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : Arrays.copyOf(digest.digest(), 16)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Bytes this thread has allocated, the simulator's own bookkeeping included; 0 where the JVM cannot tell
+    private static long allocatedBytes(ThreadMXBean threads) {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return 0;
+    }
+
+    // {collections, milliseconds} over every collector
+    private static long[] gcTotals() {
+        long[] totals = new long[2];
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            totals[0] += Math.max(0, gc.getCollectionCount());
+            totals[1] += Math.max(0, gc.getCollectionTime());
+        }
+        return totals;
+    }
+
+    private static long dirBytes(File dir) throws IOException {
+        long total = 0;
+        File[] files = dir.listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            total += file.isDirectory() ? dirBytes(file) : file.length();
+        }
+        return total;
+    }
+
+    private long totalOperations() {
+        long total = 0;
+        for (Op op : Op.values()) {
+            total += latencies[op.ordinal()].count();
+        }
+        return total;
+    }
+
+    private long totalAllocated() {
+        long total = 0;
+        for (long bytes : allocated) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    private void summarize(double seconds, long persisted, String fingerprint) {
+        long operations = totalOperations();
+        System.out.printf("%,d operations by %d desks in %.2f s: %,.0f ops/s%n", operations, config.threads, seconds, operations / seconds);
+        System.out.printf("%-10s %10s %10s %10s %10s %10s %10s%n", "", "ok", "refused", "p50 us", "p99 us", "p99.9 us", "max us");
+        for (Op op : Op.values()) {
+            LatencyHistogram histogram = latencies[op.ordinal()];
+            if (histogram.count() > 0) {
+                System.out.printf("%-10s %,10d %,10d %10.1f %10.1f %10.1f %10.1f%n", op.name().toLowerCase(Locale.ROOT),
+                    succeeded[op.ordinal()].sum(), refused[op.ordinal()].sum(), histogram.percentileNanos(50) / 1000.0,
+                    histogram.percentileNanos(99) / 1000.0, histogram.percentileNanos(99.9) / 1000.0, histogram.maxNanos() / 1000.0);
+            }
+        }
+        System.out.printf("Allocated %,.1f MB (%,.0f bytes/op, %,.1f MB/s); persisted %,.1f MB (%,.0f bytes/op)%n",
+            totalAllocated() / 1e6, (double) totalAllocated() / operations, totalAllocated() / 1e6 / seconds,
+            persisted / 1e6, (double) persisted / operations);
+        System.out.println("Final state " + fingerprint);
+    }
+
+    private String json(double seconds, long persisted, long onDisk, long gcCount, long gcMillis, String fingerprint, List<String> problems) {
+        long operations = totalOperations();
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rooms", config.rooms);
+        settings.put("reservations", config.reservations);
+        settings.put("threads", config.threads);
+        settings.put("operations", config.operations);
+        settings.put("rate", config.rate);
+        settings.put("seed", config.seed);
+        StringBuilder day = new StringBuilder();
+        for (int i = 0; i < config.phases.size(); i++) {
+            day.append(i == 0 ? "" : ",").append(config.phases.get(i).displayName()).append(':').append(config.shares.get(i));
+        }
+        settings.put("day", day.toString());
+        settings.put("mix", "search:" + config.steadyMix[0] + ",book:" + config.steadyMix[1]
+            + ",cancel:" + config.steadyMix[2] + ",pay:" + config.steadyMix[3]);
+        settings.put("durability", config.durability.name());
+        settings.put("java", System.getProperty("java.version"));
+        settings.put("cpus", Runtime.getRuntime().availableProcessors());
+        root.put("config", settings);
+
+        root.put("seconds", seconds);
+        root.put("operations", operations);
+        root.put("throughput", operations / seconds);
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (Op op : Op.values()) {
+            LatencyHistogram histogram = latencies[op.ordinal()];
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("count", histogram.count());
+            entry.put("succeeded", succeeded[op.ordinal()].sum());
+            entry.put("refused", refused[op.ordinal()].sum());
+            entry.put("meanMicros", histogram.count() == 0 ? 0.0 : histogram.totalNanos() / 1000.0 / histogram.count());
+            for (double p : new double[] { 50, 90, 99, 99.9 }) {
+                entry.put("p" + (p == (long) p ? String.valueOf((long) p) : String.valueOf(p).replace(".", "")) + "Micros",
+                    histogram.percentileNanos(p) / 1000.0);
+            }
+            entry.put("maxMicros", histogram.maxNanos() / 1000.0);
+            if (op == Op.PAY_BATCH) {
+                entry.put("meanRows", histogram.count() == 0 ? 0.0 : (double) batchRows.sum() / histogram.count());
+            }
+            ops.put(op.name().toLowerCase(Locale.ROOT), entry);
+        }
+        root.put("latency", ops);
+        List<Object> phases = new ArrayList<>();
+        for (int i = 0; i < config.phases.size(); i++) {
+            long first = Long.MAX_VALUE;
+            long last = Long.MIN_VALUE;
+            long count = 0;
+            for (int t = 0; t < config.threads; t++) {
+                count += phaseOps[t][i];
+                first = Math.min(first, phaseStart[t][i]);
+                last = Math.max(last, phaseEnd[t][i]);
+            }
+            double phaseSeconds = Math.max(last - first, 1) / 1e9;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("phase", config.phases.get(i).displayName());
+            entry.put("operations", count);
+            entry.put("seconds", phaseSeconds);
+            entry.put("throughput", count / phaseSeconds);
+            phases.add(entry);
+        }
+        root.put("phases", phases);
+        Map<String, Object> memory = new LinkedHashMap<>();
+        memory.put("allocatedBytes", totalAllocated());
+        memory.put("allocatedBytesPerOperation", (double) totalAllocated() / operations);
+        memory.put("allocationMBPerSecond", totalAllocated() / 1e6 / seconds);
+        memory.put("gcCount", gcCount);
+        memory.put("gcMillis", gcMillis);
+        root.put("memory", memory);
+        Map<String, Object> disk = new LinkedHashMap<>();
+        disk.put("persistedBytes", persisted);
+        disk.put("persistedBytesPerOperation", (double) persisted / operations);
+        disk.put("dataDirBytes", onDisk);
+        root.put("persistence", disk);
+        Map<String, Object> checks = new LinkedHashMap<>();
+        checks.put("passed", problems.isEmpty());
+        checks.put("problems", new ArrayList<Object>(problems));
+        checks.put("fingerprint", fingerprint);
+        root.put("invariants", checks);
+        StringBuilder json = new StringBuilder();
+        append(json, root, "");
+        return json.append('\n').toString();
+    }
+
+    private static void append(StringBuilder json, Object value, String indent) {
+        if (value instanceof Map) {
+            json.append('{');
+            String sep = "\n";
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                json.append(sep).append(indent).append("  ").append(quote(e.getKey().toString())).append(": ");
+                append(json, e.getValue(), indent + "  ");
+                sep = ",\n";
+            }
+            json.append('\n').append(indent).append('}');
+        } else if (value instanceof List) {
+            json.append('[');
+            String sep = "\n";
+            for (Object item : (List<?>) value) {
+                json.append(sep).append(indent).append("  ");
+                append(json, item, indent + "  ");
+                sep = ",\n";
+            }
+            json.append(((List<?>) value).isEmpty() ? "" : "\n" + indent).append(']');
+        } else if (value instanceof Double) {
+            double d = (Double) value;
+            json.append(Double.isNaN(d) || Double.isInfinite(d) ? "null" : String.format(Locale.ROOT, "%.3f", d));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else {
+            json.append(quote(String.valueOf(value)));
+        }
+    }
+
+    private static String quote(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        return out.append('"').toString();
+    }
+}
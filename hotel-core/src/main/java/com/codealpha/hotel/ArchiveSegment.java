@@ -0,0 +1,291 @@
+package com.codealpha.hotel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// One immutable file of archived reservations for the nights [fromDay, toDay), ordered by night, then
+// room. Written once by a rollover and never changed. The header is plain so opening an archive reads
+// only headers; the rows are compressed and only ever read front to back.
+//
+//   int magic 'HSEG', short version, int fromDay, int toDay (epoch days), int reservationCount
+//   gzip stream (its trailer carries a CRC32) of:
+//     int guestCount,  then per guest name:   unsigned short length, UTF-8 bytes
+//     per reservation: varint nights since the previous row (or fromDay), varint room, varint guest, byte flags (1 = paid)
+final class ArchiveSegment {
+    static final String SUFFIX = ".seg";
+    private static final int MAGIC = 0x48534547;
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 4 + 4;
+    private static final byte PAID = 1;
+
+    interface RowVisitor {
+        void row(String guestName, int roomNumber, int day, boolean paid) throws IOException;
+    }
+
+    final File file;
+    final int fromDay;
+    final int toDay;
+    final int count;
+
+    private ArchiveSegment(File file, int fromDay, int toDay, int count) {
+        this.file = file;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.count = count;
+    }
+
+    // Reads the header only
+    static ArchiveSegment open(File file) throws IOException {
+        if (file.length() < HEADER_BYTES) {
+            throw new IOException("Not an archive segment: " + file);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), HEADER_BYTES))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an archive segment: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported archive segment version " + version + ": " + file);
+            }
+            return new ArchiveSegment(file, in.readInt(), in.readInt(), in.readInt());
+        }
+    }
+
+    // "2024-03-01_2024-03-31.seg" for the nights of March 2024
+    static String fileName(int fromDay, int toDay) {
+        return LocalDate.ofEpochDay(fromDay) + "_" + LocalDate.ofEpochDay(toDay - 1) + SUFFIX;
+    }
+
+    // Writes rows[start, end), indexes into columns already ordered by night then room, to a temporary
+    // file, forces it to disk and renames it into place, so a segment is either whole or absent
+    static ArchiveSegment write(File dir, int fromDay, int toDay, ReservationStore.Columns columns,
+                                int[] rows, int start, int end) throws IOException {
+        File file = new File(dir, fileName(fromDay, toDay));
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tmp)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(fileOut, 1 << 16);
+            DataOutputStream header = new DataOutputStream(buffered);
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.writeInt(fromDay);
+            header.writeInt(toDay);
+            header.writeInt(end - start);
+            GZIPOutputStream gzip = new GZIPOutputStream(buffered, 1 << 16);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 1 << 16));
+            int[] guestIds = new int[columns.guestNames.length];
+            Arrays.fill(guestIds, -1);
+            List<String> guests = new ArrayList<>();
+            for (int i = start; i < end; i++) {
+                int guest = columns.guests[rows[i]];
+                if (guestIds[guest] < 0) {
+                    guestIds[guest] = guests.size();
+                    guests.add(columns.guestNames[guest]);
+                }
+            }
+            out.writeInt(guests.size());
+            for (String guest : guests) {
+                byte[] bytes = guest.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > BinarySnapshot.MAX_NAME_BYTES) {
+                    throw new IOException("Guest name too long: " + guest.substring(0, 40) + "...");
+                }
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            int day = fromDay;
+            for (int i = start; i < end; i++) {
+                int row = rows[i];
+                writeVarint(out, columns.days[row] - day);
+                day = columns.days[row];
+                writeVarint(out, columns.rooms[row]);
+                writeVarint(out, guestIds[columns.guests[row]]);
+                out.writeByte(columns.paid.get(row) ? PAID : 0);
+            }
+            out.flush();
+            gzip.finish();
+            buffered.flush();
+            fileOut.getChannel().force(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The rows leave memory and the snapshot once this returns, so the rename must survive a crash too
+        BinarySnapshot.syncDirectory(dir);
+        return new ArchiveSegment(file, fromDay, toDay, end - start);
+    }
+
+    // Visits the rows for nights in [fromNight, toNight] in order
+    void forEach(int fromNight, int toNight, RowVisitor visitor) throws IOException {
+        try (Cursor cursor = new Cursor()) {
+            while (cursor.next() && cursor.day <= toNight) {
+                if (cursor.day >= fromNight) {
+                    visitor.row(cursor.guest, cursor.room, cursor.day, cursor.paid);
+                }
+            }
+        }
+    }
+
+    // The rows for nights in [fromNight, toNight] as Reservations, decompressed as the stream is consumed.
+    // The file stays open until the stream is closed or runs past toNight.
+    Stream<Reservation> stream(IntFunction<Room> roomLookup, int fromNight, int toNight) {
+        RowSpliterator rows = new RowSpliterator(roomLookup, fromNight, toNight);
+        return StreamSupport.stream(rows, false).onClose(rows::close);
+    }
+
+    private final class RowSpliterator extends Spliterators.AbstractSpliterator<Reservation> {
+        private final IntFunction<Room> roomLookup;
+        private final int fromNight;
+        private final int toNight;
+        private Cursor cursor;
+        private boolean done;
+
+        RowSpliterator(IntFunction<Room> roomLookup, int fromNight, int toNight) {
+            super(count, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.roomLookup = roomLookup;
+            this.fromNight = fromNight;
+            this.toNight = toNight;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Reservation> action) {
+            try {
+                if (done) {
+                    return false;
+                }
+                if (cursor == null) {
+                    cursor = new Cursor();
+                }
+                while (cursor.next()) {
+                    if (cursor.day > toNight) {
+                        break;
+                    }
+                    if (cursor.day >= fromNight) {
+                        Reservation res = new Reservation(cursor.guest, roomLookup.apply(cursor.room), LocalDate.ofEpochDay(cursor.day));
+                        res.setPaid(cursor.paid);
+                        action.accept(res);
+                        return true;
+                    }
+                }
+                close();
+                return false;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Error reading archive " + file, e);
+            }
+        }
+
+        void close() {
+            done = true;
+            if (cursor != null) {
+                try {
+                    cursor.close();
+                } catch (IOException e) {
+                    System.err.println("Error closing archive " + file + ": " + e.getMessage());
+                }
+                cursor = null;
+            }
+        }
+    }
+
+    // Front-to-back reader; next() returns false after the last row, once the gzip trailer has checked out
+    private final class Cursor implements Closeable {
+        private final DataInputStream in;
+        private final String[] guests;
+        private int remaining = count;
+        int day = fromDay;
+        int room;
+        String guest;
+        boolean paid;
+
+        Cursor() throws IOException {
+            InputStream fileIn = new FileInputStream(file);
+            try {
+                if (fileIn.skip(HEADER_BYTES) != HEADER_BYTES) {
+                    throw new EOFException("Truncated archive segment: " + file);
+                }
+                in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(fileIn, 1 << 16), 1 << 16));
+                guests = new String[in.readInt()];
+                byte[] scratch = new byte[256];
+                for (int i = 0; i < guests.length; i++) {
+                    int length = in.readUnsignedShort();
+                    if (length > scratch.length) {
+                        scratch = new byte[Math.max(length, scratch.length * 2)];
+                    }
+                    in.readFully(scratch, 0, length);
+                    guests[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                }
+            } catch (IOException e) {
+                fileIn.close();
+                throw e;
+            }
+        }
+
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                // Reading to the end makes GZIPInputStream verify the checksum and length
+                if (in.read() != -1) {
+                    throw new IOException("Trailing data in archive segment: " + file);
+                }
+                return false;
+            }
+            remaining--;
+            day += readVarint(in);
+            room = readVarint(in);
+            int id = readVarint(in);
+            if (id < 0 || id >= guests.length) {
+                throw new IOException("Archive reservation references unknown guest: " + file);
+            }
+            guest = guests[id];
+            paid = (in.readByte() & PAID) != 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Unsigned LEB128: nights between rows are small and room numbers rarely pass two bytes
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in archive segment");
+    }
+}
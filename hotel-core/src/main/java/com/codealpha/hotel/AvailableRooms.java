@@ -0,0 +1,75 @@
+package com.codealpha.hotel;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+// Rooms of one category with no bookings, in a dense array with swap-remove so a room joins or leaves
+// in O(1). The list itself is the live, read-only search result and reading it allocates nothing.
+// Writers synchronize; get() and size() take no lock, so iterating while rooms are booked can skip or
+// repeat a room. Callers that keep the result should copy it, which new ArrayList<>(list) does
+// atomically through toArray().
+final class AvailableRooms extends AbstractList<Room> implements RandomAccess {
+    private volatile Room[] rooms = new Room[16];
+    private volatile int size;
+
+    synchronized void addRoom(Room room) {
+        if (room.availableSlot != 0) {
+            return;
+        }
+        if (size == rooms.length) {
+            rooms = Arrays.copyOf(rooms, size * 2);
+        }
+        rooms[size] = room;
+        size++;
+        room.availableSlot = size;
+    }
+
+    synchronized void removeRoom(Room room) {
+        int slot = room.availableSlot - 1;
+        if (slot < 0) {
+            return;
+        }
+        // The vacated tail slot keeps its reference so an unlocked reader holding the old size never sees null
+        Room last = rooms[size - 1];
+        rooms[slot] = last;
+        last.availableSlot = slot + 1;
+        size--;
+        room.availableSlot = 0;
+    }
+
+    @Override
+    public Room get(int index) {
+        // size before rooms: the array read is then at least as new as the size that bounds it
+        int n = size;
+        Room[] current = rooms;
+        if (index >= n) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + n);
+        }
+        return current[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized Object[] toArray() {
+        return Arrays.copyOf(rooms, size, Object[].class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T[] toArray(T[] a) {
+        if (a.length < size) {
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        System.arraycopy(rooms, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,51 @@
+package com.codealpha.hotel;
+
+import java.time.LocalDate;
+
+// One row of a batch passed to Hotel.applyBatch: a booking, a cancellation or a payment
+public final class BatchOperation {
+    public enum Type { BOOK, CANCEL, PAY }
+
+    private final Type type;
+    private final String guestName;
+    private final int roomNumber;
+    private final LocalDate date;
+    private final boolean paid;
+
+    private BatchOperation(Type type, String guestName, int roomNumber, LocalDate date, boolean paid) {
+        this.type = type;
+        this.guestName = guestName;
+        this.roomNumber = roomNumber;
+        this.date = date;
+        this.paid = paid;
+    }
+
+    public static BatchOperation book(String guestName, int roomNumber, LocalDate date) {
+        return new BatchOperation(Type.BOOK, guestName, roomNumber, date, false);
+    }
+
+    // A booking that is already paid for, as written by ReservationCsv.exportCsv
+    public static BatchOperation book(String guestName, int roomNumber, LocalDate date, boolean paid) {
+        return new BatchOperation(Type.BOOK, guestName, roomNumber, date, paid);
+    }
+
+    // Cancels and pays act on the guest's earliest night in the room, like the single-call methods
+    public static BatchOperation cancel(String guestName, int roomNumber) {
+        return new BatchOperation(Type.CANCEL, guestName, roomNumber, null, false);
+    }
+
+    public static BatchOperation pay(String guestName, int roomNumber) {
+        return new BatchOperation(Type.PAY, guestName, roomNumber, null, false);
+    }
+
+    public Type getType() { return type; }
+    public String getGuestName() { return guestName; }
+    public int getRoomNumber() { return roomNumber; }
+    public LocalDate getDate() { return date; }
+    public boolean isPaid() { return paid; }
+
+    @Override
+    public String toString() {
+        return type + " " + guestName + " room " + roomNumber + (date != null ? " on " + date : "") + (paid ? " (paid)" : "");
+    }
+}
@@ -0,0 +1,38 @@
+package com.codealpha.hotel;
+
+// Per-row outcome of Hotel.applyBatch, in the order the operations were given
+public final class BatchResult {
+    private final String[] errors;
+    private final boolean applied;
+
+    BatchResult(String[] errors, boolean applied) {
+        this.errors = errors;
+        this.applied = applied;
+    }
+
+    public int size() {
+        return errors.length;
+    }
+
+    // False when an ALL_OR_NOTHING batch was rolled back; a BEST_EFFORT batch is always applied
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public boolean succeeded(int row) {
+        return errors[row] == null;
+    }
+
+    // Why the row was not applied, or null if it was
+    public String error(int row) {
+        return errors[row];
+    }
+
+    public int successCount() {
+        int count = 0;
+        for (String error : errors) {
+            if (error == null) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,332 @@
+package com.codealpha.hotel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Versioned binary snapshot of rooms and reservations, read whole into a heap buffer. It is not mapped:
+// a mapping outlives the channel until it is collected, and on Windows blocks the rename of the next snapshot.
+//
+//   int magic 'HTLS', short version, long journalSeq, int archive horizon (version 2 on)
+//   int roomCount,        then per room:        int number, byte category
+//   int guestCount,       then per guest name:  unsigned short length, UTF-8 bytes
+//   int reservationCount, then per reservation: int room, int guest index, int epoch day, byte flags (1 = paid)
+//   int CRC32 of everything before it
+public final class BinarySnapshot {
+    public static final String FILE = "hotel.snap";
+    private static final int MAGIC = 0x48544C53;
+    private static final short VERSION = 2;
+    // Version 1 had no horizon: when it was written, every row before the archive's horizon was archived,
+    // unpaid ones included
+    static final int HORIZON_UNRECORDED = Integer.MAX_VALUE;
+    private static final byte PAID = 1;
+    // Longest guest name, in UTF-8 bytes, a snapshot can hold; Hotel refuses longer names up front
+    static final int MAX_NAME_BYTES = 0xFFFF;
+
+    // reservations builds each Reservation from the decoded columns when it is read
+    public static final class Contents {
+        public final List<Room> rooms;
+        public final List<Reservation> reservations;
+        public final long journalSeq;
+        final ReservationStore.Columns columns;
+        // The archive's horizon when the snapshot was written: paid rows before it were already archived
+        final int archiveHorizon;
+
+        Contents(List<Room> rooms, ReservationStore.Columns columns, long journalSeq, int archiveHorizon) {
+            Map<Integer, Room> byNumber = new HashMap<>(rooms.size() * 2);
+            for (Room room : rooms) {
+                byNumber.put(room.getRoomNumber(), room);
+            }
+            this.rooms = rooms;
+            this.columns = columns;
+            this.journalSeq = journalSeq;
+            this.archiveHorizon = archiveHorizon;
+            this.reservations = new AbstractList<Reservation>() {
+                @Override
+                public Reservation get(int index) {
+                    if (index < 0 || index >= columns.size) {
+                        throw new IndexOutOfBoundsException("Index: " + index);
+                    }
+                    return columns.reservation(index, byNumber::get);
+                }
+
+                @Override
+                public int size() {
+                    return columns.size;
+                }
+            };
+        }
+    }
+
+    private BinarySnapshot() {
+    }
+
+    // Writes to a temporary file and renames it over the target, so readers never see a partial snapshot
+    public static void write(File file, Collection<Room> rooms, Collection<Reservation> reservations, long journalSeq) throws IOException {
+        Map<String, Integer> guestIds = new HashMap<>();
+        List<String> guests = new ArrayList<>();
+        int[] roomColumn = new int[reservations.size()];
+        int[] dayColumn = new int[reservations.size()];
+        int[] guestColumn = new int[reservations.size()];
+        BitSet paid = new BitSet();
+        int row = 0;
+        for (Reservation res : reservations) {
+            Integer guest = guestIds.putIfAbsent(res.getGuestName(), guests.size());
+            if (guest == null) {
+                guest = guests.size();
+                guests.add(res.getGuestName());
+            }
+            roomColumn[row] = res.getRoom().getRoomNumber();
+            dayColumn[row] = (int) res.getDate().toEpochDay();
+            guestColumn[row] = guest;
+            paid.set(row, res.isPaid());
+            row++;
+        }
+        write(file, rooms, new ReservationStore.Columns(row, roomColumn, dayColumn, guestColumn, paid,
+            guests.toArray(new String[0])), journalSeq, Integer.MIN_VALUE);
+    }
+
+    // Only guest names still referenced by a reservation are written, renumbered in order of first use
+    static void write(File file, Collection<Room> rooms, ReservationStore.Columns columns, long journalSeq,
+                      int archiveHorizon) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tmp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOut, crc), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(journalSeq);
+            out.writeInt(archiveHorizon);
+            out.writeInt(rooms.size());
+            for (Room room : rooms) {
+                out.writeInt(room.getRoomNumber());
+                out.writeByte(room.getCategory().ordinal());
+            }
+            int[] guestIds = new int[columns.guestNames.length];
+            Arrays.fill(guestIds, -1);
+            List<String> guests = new ArrayList<>();
+            for (int i = 0; i < columns.size; i++) {
+                int guest = columns.guests[i];
+                if (guestIds[guest] < 0) {
+                    guestIds[guest] = guests.size();
+                    guests.add(columns.guestNames[guest]);
+                }
+            }
+            out.writeInt(guests.size());
+            for (String guest : guests) {
+                byte[] bytes = guest.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > MAX_NAME_BYTES) {
+                    throw new IOException("Guest name too long: " + guest.substring(0, 40) + "...");
+                }
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(columns.size);
+            for (int i = 0; i < columns.size; i++) {
+                out.writeInt(columns.rooms[i]);
+                out.writeInt(guestIds[columns.guests[i]]);
+                out.writeInt(columns.days[i]);
+                out.writeByte(columns.paid.get(i) ? PAID : 0);
+            }
+            out.flush();
+            new DataOutputStream(fileOut).writeInt((int) crc.getValue());
+            fileOut.getChannel().force(false);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The journal is truncated once this returns, so the rename must survive a crash too
+        syncDirectory(file.getAbsoluteFile().getParentFile());
+    }
+
+    // Makes renames into dir durable. Some platforms cannot open a directory (Windows, whose renames need
+    // no such step), so failing to open it is not an error; failing to sync one that opened is.
+    static void syncDirectory(File dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    // Reservations reference the returned Room objects, whose availability reflects the reservations
+    public static Contents read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 14 + 4 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a hotel snapshot (size " + size + "): " + file);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0) {
+                    throw new EOFException("Snapshot shrank while reading: " + file);
+                }
+            }
+            buf.flip();
+            ByteBuffer body = buf.duplicate();
+            body.limit((int) size - 4);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != buf.getInt((int) size - 4)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("Not a hotel snapshot: " + file);
+            }
+            short version = buf.getShort();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            long journalSeq = buf.getLong();
+            int archiveHorizon = version == 1 ? HORIZON_UNRECORDED : buf.getInt();
+
+            Room.Category[] categories = Room.Category.values();
+            int roomCount = buf.getInt();
+            List<Room> rooms = new ArrayList<>(roomCount);
+            Map<Integer, Room> byNumber = new HashMap<>(roomCount * 2);
+            for (int i = 0; i < roomCount; i++) {
+                Room room = new Room(buf.getInt(), categories[buf.get()]);
+                rooms.add(room);
+                byNumber.put(room.getRoomNumber(), room);
+            }
+
+            int guestCount = buf.getInt();
+            String[] guests = new String[guestCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < guestCount; i++) {
+                int length = buf.getShort() & 0xFFFF;
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buf.get(scratch, 0, length);
+                guests[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int reservationCount = buf.getInt();
+            int[] roomColumn = new int[reservationCount];
+            int[] dayColumn = new int[reservationCount];
+            int[] guestColumn = new int[reservationCount];
+            BitSet paid = new BitSet(reservationCount);
+            int kept = 0;
+            for (int i = 0; i < reservationCount; i++) {
+                Room room = byNumber.get(buf.getInt());
+                int guest = buf.getInt();
+                if (room == null || guest < 0 || guest >= guestCount) {
+                    throw new IOException("Snapshot reservation references unknown room or guest: " + file);
+                }
+                int day = buf.getInt();
+                boolean isPaid = (buf.get() & PAID) != 0;
+                // Written before Hotel refused such nights, and truncated to an int on the way
+                if (!Hotel.dayFits(day)) {
+                    continue;
+                }
+                roomColumn[kept] = room.getRoomNumber();
+                guestColumn[kept] = guest;
+                dayColumn[kept] = day;
+                paid.set(kept, isPaid);
+                kept++;
+                room.setAvailable(false);
+            }
+            if (kept < reservationCount) {
+                System.err.println("Error loading snapshot: skipped " + (reservationCount - kept)
+                    + " reservations outside " + Hotel.FIRST_NIGHT + " to " + Hotel.LAST_NIGHT + " in " + file);
+                roomColumn = Arrays.copyOf(roomColumn, kept);
+                dayColumn = Arrays.copyOf(dayColumn, kept);
+                guestColumn = Arrays.copyOf(guestColumn, kept);
+            }
+            return new Contents(rooms, new ReservationStore.Columns(kept, roomColumn, dayColumn, guestColumn,
+                paid, guests), journalSeq, archiveHorizon);
+        }
+    }
+
+    // The journal sequence number the snapshot covers, from the header alone
+    static long journalSeq(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 14))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a hotel snapshot: " + file);
+            }
+            short version = in.readShort();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            return in.readLong();
+        }
+    }
+
+    // One-time conversion of the Java-serialized rooms.dat and reservations.dat in dataDir into a
+    // snapshot. The old files are kept with a .migrated suffix. Returns false if there was nothing to do.
+    @SuppressWarnings("unchecked")
+    public static boolean migrate(File dataDir) throws IOException {
+        File roomsFile = new File(dataDir, "rooms.dat");
+        File reservationsFile = new File(dataDir, "reservations.dat");
+        File snapshot = new File(dataDir, FILE);
+        if (snapshot.exists() || !roomsFile.exists()) {
+            return false;
+        }
+        List<Room> rooms;
+        try (ObjectInputStream ois = new LegacyObjectInputStream(new FileInputStream(roomsFile))) {
+            rooms = (List<Room>) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unreadable " + roomsFile, e);
+        }
+        List<Reservation> loaded = new ArrayList<>();
+        long journalSeq = 0;
+        if (reservationsFile.exists()) {
+            try (ObjectInputStream ois = new LegacyObjectInputStream(new FileInputStream(reservationsFile))) {
+                loaded = (List<Reservation>) ois.readObject();
+                try {
+                    journalSeq = ois.readLong();
+                } catch (EOFException legacy) {
+                    journalSeq = 0;
+                }
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Unreadable " + reservationsFile, e);
+            }
+        }
+        // Reservations deserialize with their own Room copies; relink them to the listed rooms
+        Map<Integer, Room> byNumber = new HashMap<>();
+        for (Room room : rooms) {
+            byNumber.put(room.getRoomNumber(), room);
+        }
+        List<Reservation> reservations = new ArrayList<>(loaded.size());
+        for (Reservation res : loaded) {
+            Room room = byNumber.get(res.getRoom().getRoomNumber());
+            if (room != null) {
+                Reservation relinked = new Reservation(res.getGuestName(), room, res.getDate());
+                relinked.setPaid(res.isPaid());
+                reservations.add(relinked);
+            }
+        }
+        write(snapshot, rooms, reservations, journalSeq);
+        Files.move(roomsFile.toPath(), new File(dataDir, "rooms.dat.migrated").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        if (reservationsFile.exists()) {
+            Files.move(reservationsFile.toPath(), new File(dataDir, "reservations.dat.migrated").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,393 @@
+package com.codealpha.hotel;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Write-ahead journal: one compact, checksummed record per mutation, replayed on startup
+public class BookingJournal implements Closeable {
+    public enum Durability { NONE, FSYNC_EACH, GROUP_COMMIT }
+
+    interface Replay {
+        void book(String guestName, int roomNumber, LocalDate date, boolean paid);
+        void cancel(String guestName, int roomNumber);
+        void pay(String guestName, int roomNumber);
+    }
+
+    private static final byte OP_BOOK = 1;
+    private static final byte OP_CANCEL = 2;
+    private static final byte OP_PAY = 3;
+    private static final byte OP_BOOK_PAID = 4;
+    private static final byte OP_BATCH = 5;
+    // A batch is one record so it replays all or nothing; this bounds how many rows it can hold
+    private static final int MAX_RECORD = 64 * 1024 * 1024;
+
+    private static final class FailedSync {
+        final long upTo;
+        final IOException cause;
+
+        FailedSync(long upTo, IOException cause) {
+            this.upTo = upTo;
+            this.cause = cause;
+        }
+    }
+
+    private final File file;
+    private final Durability durability;
+    private final FileChannel channel;
+    private final ScheduledExecutorService flusher;
+    private long lastSeq;
+    private long syncedSeq;
+    // Group commit fsyncs that failed, each as the synced seq before it mapped to the seq it was to sync:
+    // the records in between may not be on disk, so their committers are told so instead of waiting on a
+    // later sync. Records a later fsync did cover are not held against an earlier failure.
+    private final TreeMap<Long, FailedSync> failedSyncs = new TreeMap<>();
+    private int records;
+    private final HotelMetrics metrics;
+
+    public BookingJournal(File file, Durability durability, long groupCommitMillis,
+                          long snapshotSeq, Replay replay) throws IOException {
+        this(file, durability, groupCommitMillis, snapshotSeq, replay, new HotelMetrics(false));
+    }
+
+    // Times every write and fsync and counts the bytes written into metrics
+    public BookingJournal(File file, Durability durability, long groupCommitMillis,
+                          long snapshotSeq, Replay replay, HotelMetrics metrics) throws IOException {
+        this.file = file;
+        this.metrics = metrics;
+        this.durability = durability;
+        this.lastSeq = snapshotSeq;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        readFrom(0, replay);
+        this.syncedSeq = lastSeq;
+        if (durability == Durability.GROUP_COMMIT) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "journal-group-commit");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::groupCommit, groupCommitMillis, groupCommitMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    // Replays the records from offset on whose sequence number is past lastSeq, leaves the channel positioned
+    // after the last good record and returns how many operations were replayed
+    private int readFrom(long offset, Replay replay) throws IOException {
+        int before = records;
+        long validLength = replay(offset, replay);
+        if (channel.size() > validLength) {
+            // Torn or corrupt tail from a crash: drop it so new records follow the last good one
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+        return records - before;
+    }
+
+    private long replay(long offset, Replay replay) throws IOException {
+        long afterSeq = lastSeq;
+        try (FileInputStream fileIn = new FileInputStream(file)) {
+            fileIn.getChannel().position(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(fileIn));
+            CRC32 crc = new CRC32();
+            while (true) {
+                int length;
+                int checksum;
+                byte[] payload;
+                try {
+                    length = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD) {
+                        break;
+                    }
+                    checksum = in.readInt();
+                    payload = new byte[length];
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                DataInputStream rec = new DataInputStream(new ByteArrayInputStream(payload));
+                long seq = rec.readLong();
+                byte op = rec.readByte();
+                if (seq > afterSeq) {
+                    int count = op == OP_BATCH ? rec.readInt() : 1;
+                    for (int i = 0; i < count; i++) {
+                        replayOp(op == OP_BATCH ? rec.readByte() : op, rec, replay, offset);
+                    }
+                    records += count;
+                }
+                lastSeq = Math.max(lastSeq, seq);
+                offset += 8 + length;
+            }
+        }
+        return offset;
+    }
+
+    private static void replayOp(byte op, DataInputStream rec, Replay replay, long offset) throws IOException {
+        String guestName = rec.readUTF();
+        int roomNumber = rec.readInt();
+        switch (op) {
+            case OP_BOOK: replay.book(guestName, roomNumber, LocalDate.ofEpochDay(rec.readLong()), false); break;
+            case OP_BOOK_PAID: replay.book(guestName, roomNumber, LocalDate.ofEpochDay(rec.readLong()), true); break;
+            case OP_CANCEL: replay.cancel(guestName, roomNumber); break;
+            case OP_PAY: replay.pay(guestName, roomNumber); break;
+            default: throw new IOException("Unknown journal op " + op + " at offset " + offset);
+        }
+    }
+
+    // append* writes the record and returns its sequence number; commit(seq) then makes it durable.
+    // Callers append while holding their own locks (to keep per-room order) and commit after releasing them.
+    public long appendBook(String guestName, int roomNumber, LocalDate date) throws IOException {
+        return append(OP_BOOK, guestName, roomNumber, date);
+    }
+
+    public long appendBook(String guestName, int roomNumber, LocalDate date, boolean paid) throws IOException {
+        return append(paid ? OP_BOOK_PAID : OP_BOOK, guestName, roomNumber, date);
+    }
+
+    public long appendCancel(String guestName, int roomNumber) throws IOException {
+        return append(OP_CANCEL, guestName, roomNumber, null);
+    }
+
+    public long appendPay(String guestName, int roomNumber) throws IOException {
+        return append(OP_PAY, guestName, roomNumber, null);
+    }
+
+    private synchronized long append(byte op, String guestName, int roomNumber, LocalDate date) throws IOException {
+        long seq = lastSeq + 1;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream rec = new DataOutputStream(bytes);
+        rec.writeLong(seq);
+        rec.writeByte(op);
+        writeOp(rec, guestName, roomNumber, date);
+        write(bytes.toByteArray());
+        lastSeq = seq;
+        records++;
+        return seq;
+    }
+
+    // Writes every operation as a single record, so a crash mid-write loses the whole batch rather than part of it
+    public synchronized long appendBatch(List<BatchOperation> ops) throws IOException {
+        long seq = lastSeq + 1;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(13 + 32 * ops.size());
+        DataOutputStream rec = new DataOutputStream(bytes);
+        rec.writeLong(seq);
+        rec.writeByte(OP_BATCH);
+        rec.writeInt(ops.size());
+        for (BatchOperation op : ops) {
+            switch (op.getType()) {
+                case BOOK:
+                    rec.writeByte(op.isPaid() ? OP_BOOK_PAID : OP_BOOK);
+                    writeOp(rec, op.getGuestName(), op.getRoomNumber(), op.getDate());
+                    break;
+                case CANCEL:
+                    rec.writeByte(OP_CANCEL);
+                    writeOp(rec, op.getGuestName(), op.getRoomNumber(), null);
+                    break;
+                default:
+                    rec.writeByte(OP_PAY);
+                    writeOp(rec, op.getGuestName(), op.getRoomNumber(), null);
+                    break;
+            }
+        }
+        if (bytes.size() > MAX_RECORD) {
+            throw new IOException("Batch of " + ops.size() + " operations exceeds the journal record limit");
+        }
+        write(bytes.toByteArray());
+        lastSeq = seq;
+        records += ops.size();
+        return seq;
+    }
+
+    private static void writeOp(DataOutputStream rec, String guestName, int roomNumber, LocalDate date) throws IOException {
+        rec.writeUTF(guestName);
+        rec.writeInt(roomNumber);
+        if (date != null) {
+            rec.writeLong(date.toEpochDay());
+        }
+    }
+
+    // A write that fails part way is cut back off, so the file never holds a torn record with good ones after
+    // it: replay stops at the first bad record and would drop everything that followed
+    private void write(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer buf = ByteBuffer.allocate(8 + payload.length);
+        buf.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long start = metrics.start();
+        long position = channel.position();
+        boolean written = false;
+        try {
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            written = true;
+        } catch (IOException e) {
+            try {
+                channel.truncate(position);
+                channel.position(position);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError);
+            }
+            throw e;
+        } finally {
+            metrics.record(HotelMetrics.Operation.JOURNAL_WRITE, start, written);
+        }
+        metrics.addBytesPersisted(buf.limit());
+    }
+
+    public void commit(long seq) throws IOException {
+        switch (durability) {
+            case FSYNC_EACH:
+                // Concurrent committers share one force(): whoever syncs covers everything written so far
+                synchronized (this) {
+                    if (syncedSeq >= seq) {
+                        return;
+                    }
+                }
+                syncPending();
+                break;
+            case GROUP_COMMIT:
+                awaitSynced(seq);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void awaitSynced(long seq) throws IOException {
+        while (true) {
+            // Failures are rare, and two racing syncs can leave overlapping ranges, so check every one below seq
+            for (FailedSync failed : failedSyncs.headMap(seq).values()) {
+                if (seq <= failed.upTo) {
+                    throw new IOException("Group commit failed: " + failed.cause.getMessage(), failed.cause);
+                }
+            }
+            if (syncedSeq >= seq) {
+                return;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for group commit");
+            }
+        }
+    }
+
+    private void syncPending() throws IOException {
+        long target;
+        synchronized (this) {
+            target = lastSeq;
+            if (target <= syncedSeq) {
+                return;
+            }
+        }
+        long start = metrics.start();
+        boolean synced = false;
+        try {
+            channel.force(false);
+            synced = true;
+        } finally {
+            metrics.record(HotelMetrics.Operation.JOURNAL_SYNC, start, synced);
+        }
+        synchronized (this) {
+            syncedSeq = Math.max(syncedSeq, target);
+            notifyAll();
+        }
+    }
+
+    void groupCommit() {
+        long after;
+        long target;
+        synchronized (this) {
+            after = syncedSeq;
+            target = lastSeq;
+        }
+        try {
+            syncPending();
+        } catch (IOException e) {
+            System.err.println("Error syncing journal: " + e.getMessage());
+            syncFailed(after, target, e);
+        }
+    }
+
+    // Fails the committers of the records after `after` up to target; package-private so tests can stand in
+    // for a failing fsync
+    synchronized void syncFailed(long after, long target, IOException e) {
+        if (target <= after) {
+            return;
+        }
+        // A retry from the same synced seq covers at least what the earlier attempt did
+        FailedSync earlier = failedSyncs.get(after);
+        failedSyncs.put(after, new FailedSync(earlier == null ? target : Math.max(earlier.upTo, target), e));
+        notifyAll();
+    }
+
+    public synchronized long lastSeq() { return lastSeq; }
+    public synchronized int records() { return records; }
+
+    // True when the file has changed since this journal last read or wrote it, as when another process
+    // sharing it has appended records or compacted; cheap enough to poll
+    synchronized boolean hasUnread() throws IOException {
+        return channel.size() != channel.position();
+    }
+
+    // Replays the records other processes appended since this journal last read or wrote the file and
+    // returns how many operations that was. Callers hold the data directory lock, so nobody is writing:
+    // a bad record is the torn tail of a writer that died, and is cut off.
+    synchronized int catchUp(Replay replay) throws IOException {
+        // Shorter than where this journal left off: someone compacted, so every record is new
+        return readFrom(channel.size() < channel.position() ? 0 : channel.position(), replay);
+    }
+
+    // After another process saved a snapshot covering snapshotSeq and restarted the file: the next
+    // catchUp reads it from the start and replays only what neither the snapshot nor this journal has seen
+    synchronized void rewind(long snapshotSeq) throws IOException {
+        channel.position(0);
+        lastSeq = Math.max(lastSeq, snapshotSeq);
+        syncedSeq = Math.max(syncedSeq, lastSeq);
+        records = 0;
+    }
+
+    // Called once a snapshot covering lastSeq() is safely on disk
+    public synchronized void reset() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        records = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+            groupCommit();
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.codealpha.hotel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Serializes writers to one data directory across threads and processes: one reentrant lock per directory
+// in this JVM, and an exclusive OS lock on dataDir/hotel.lock while any thread here holds it. OS locks
+// belong to the whole process, so Hotels in one JVM that share a directory must share this object too.
+final class DataDirLock {
+    static final String FILE = "hotel.lock";
+    private static final Map<File, DataDirLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final File file;
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel channel;
+    private FileLock fileLock;
+
+    private DataDirLock(File file) {
+        this.file = file;
+    }
+
+    static DataDirLock forDir(File dataDir) throws IOException {
+        return LOCKS.computeIfAbsent(dataDir.getCanonicalFile(), dir -> new DataDirLock(new File(dir, FILE)));
+    }
+
+    // Blocks until no other thread or process holds the directory. Returns true when this call took the
+    // OS lock, i.e. the caller was not already holding it and other processes may have written since.
+    boolean lock() throws IOException {
+        lock.lock();
+        if (lock.getHoldCount() > 1) {
+            return false;
+        }
+        try {
+            // An interrupt while waiting closes the channel, so reopen it if need be
+            if (channel == null || !channel.isOpen()) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            fileLock = channel.lock();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+
+    void unlock() {
+        try {
+            if (lock.getHoldCount() == 1 && fileLock != null) {
+                FileLock held = fileLock;
+                fileLock = null;
+                held.release();
+            }
+        } catch (IOException e) {
+            System.err.println("Error releasing " + file + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.codealpha.hotel;
+
+import java.util.Arrays;
+
+// Interned guest names: each distinct name is stored once and known by a dense int id. Ids are never
+// reused, so a name stays after its last booking is cancelled; snapshots only write names still in use.
+// Not thread-safe; ReservationStore guards it with its monitor.
+final class GuestDictionary {
+    private String[] names = new String[16];
+    // Open addressing with linear probing; slots hold id + 1, 0 when empty
+    private int[] table = new int[32];
+    private int shift = 32 - 5;
+    private int count;
+
+    int intern(String name) {
+        int slot = slotOf(name);
+        if (table[slot] != 0) {
+            return table[slot] - 1;
+        }
+        if (count == names.length) {
+            names = Arrays.copyOf(names, count * 2);
+        }
+        names[count] = name;
+        table[slot] = ++count;
+        if (count * 2 > table.length) {
+            shift--;
+            rehash(table.length * 2);
+        }
+        return count - 1;
+    }
+
+    // Sizes the table once for a bulk load instead of doubling repeatedly
+    void ensureCapacity(int names) {
+        if (names > this.names.length) {
+            this.names = Arrays.copyOf(this.names, names);
+        }
+        if (names * 2 > table.length) {
+            int length = table.length;
+            while (names * 2 > length) {
+                length <<= 1;
+                shift--;
+            }
+            rehash(length);
+        }
+    }
+
+    // The name's id, or -1 if it was never interned
+    int lookup(String name) {
+        return table[slotOf(name)] - 1;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return count;
+    }
+
+    String[] names() {
+        return Arrays.copyOf(names, count);
+    }
+
+    private int slotOf(String name) {
+        int mask = table.length - 1;
+        int slot = hash(name);
+        while (table[slot] != 0 && !names[table[slot] - 1].equals(name)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int length) {
+        table = new int[length];
+        int mask = table.length - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = hash(names[id]);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    // Fibonacci hashing: the top bits of the product, as many as the table needs
+    private int hash(String name) {
+        return (name.hashCode() * 0x9E3779B9) >>> shift;
+    }
+}
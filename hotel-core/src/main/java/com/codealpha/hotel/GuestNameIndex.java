@@ -0,0 +1,139 @@
+package com.codealpha.hotel;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+// Guest names in case-insensitive order for prefix lookup: one large sorted array, plus a sorted set of
+// names added since that is merged into the array once it reaches 1/32 of its size, so adding a name costs
+// O(log n) and an amortized 32 copies. Holds the dictionary's own strings, about 4 bytes per name. Names
+// stay when a guest's last reservation goes; ReservationStore skips those guests and rebuilds the index
+// once most of it is skippable. Not thread-safe: ReservationStore builds it from copies outside its
+// monitor, then guards it with the monitor.
+final class GuestNameIndex {
+    // Ignoring case first, so the names with a prefix are contiguous; then exact order, so names that
+    // differ only in case are both kept
+    static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    private static final int MIN_MERGE = 1024;
+
+    private String[] sorted;
+    private final TreeSet<String> recent = new TreeSet<>(ORDER);
+    private final BitSet indexed = new BitSet();
+    private int dead;
+
+    // Indexes names[id] for each id in include
+    GuestNameIndex(String[] names, BitSet include) {
+        String[] picked = new String[include.cardinality()];
+        int count = 0;
+        for (int id = include.nextSetBit(0); id >= 0; id = include.nextSetBit(id + 1)) {
+            picked[count++] = names[id];
+        }
+        indexed.or(include);
+        sorted = Arrays.copyOf(picked, count);
+        Arrays.parallelSort(sorted, ORDER);
+    }
+
+    boolean contains(int id) {
+        return indexed.get(id);
+    }
+
+    void add(int id, String name) {
+        if (indexed.get(id)) {
+            return;
+        }
+        indexed.set(id);
+        recent.add(name);
+        if (recent.size() >= Math.max(MIN_MERGE, sorted.length >> 5)) {
+            merge();
+        }
+    }
+
+    // The store reports guests losing their last reservation and indexed guests regaining one
+    void died() {
+        dead++;
+    }
+
+    void revived() {
+        dead--;
+    }
+
+    // More names to skip than to find: cheaper to rebuild from the live guests
+    boolean isMostlyDead() {
+        return dead > MIN_MERGE && dead > (sorted.length + recent.size()) / 2;
+    }
+
+    private void merge() {
+        String[] merged = new String[sorted.length + recent.size()];
+        int i = 0;
+        int out = 0;
+        for (String name : recent) {
+            while (i < sorted.length && ORDER.compare(sorted[i], name) < 0) {
+                merged[out++] = sorted[i++];
+            }
+            merged[out++] = name;
+        }
+        System.arraycopy(sorted, i, merged, out, sorted.length - i);
+        sorted = merged;
+        recent.clear();
+    }
+
+    // Visits the names starting with prefix, ignoring case, in ORDER until the visitor returns false
+    void forEachStartingWith(String prefix, Predicate<String> visitor) {
+        int i = lowerBound(prefix);
+        Iterator<String> more = recent.tailSet(firstRecent(prefix), true).iterator();
+        String fromSorted = i < sorted.length && startsWith(sorted[i], prefix) ? sorted[i] : null;
+        String fromRecent = more.hasNext() ? more.next() : null;
+        if (fromRecent != null && !startsWith(fromRecent, prefix)) {
+            fromRecent = null;
+        }
+        while (fromSorted != null || fromRecent != null) {
+            boolean takeSorted = fromRecent == null || (fromSorted != null && ORDER.compare(fromSorted, fromRecent) < 0);
+            if (!visitor.test(takeSorted ? fromSorted : fromRecent)) {
+                return;
+            }
+            if (takeSorted) {
+                i++;
+                fromSorted = i < sorted.length && startsWith(sorted[i], prefix) ? sorted[i] : null;
+            } else {
+                fromRecent = more.hasNext() ? more.next() : null;
+                if (fromRecent != null && !startsWith(fromRecent, prefix)) {
+                    fromRecent = null;
+                }
+            }
+        }
+    }
+
+    // The first name not before prefix, ignoring case; the array is sorted that way too, since ORDER only
+    // refines it
+    private int lowerBound(String prefix) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (String.CASE_INSENSITIVE_ORDER.compare(sorted[mid], prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Where to start in recent: ORDER puts "ANN" before "ann", so step back over names equal to the
+    // prefix but for case
+    private String firstRecent(String prefix) {
+        String first = prefix;
+        for (String before = recent.lower(first); before != null && String.CASE_INSENSITIVE_ORDER.compare(before, prefix) == 0;
+             before = recent.lower(first)) {
+            first = before;
+        }
+        return first;
+    }
+
+    private static boolean startsWith(String name, String prefix) {
+        return name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+}
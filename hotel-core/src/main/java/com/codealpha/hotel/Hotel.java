@@ -0,0 +1,1197 @@
+package com.codealpha.hotel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Thread-safe: operations on a room serialize on that room's lock stripe, so bookings for
+// different rooms proceed in parallel. Journal fsyncs happen after the stripe, and the directory
+// lock when shared, are released.
+// Memory holds today's and future stays, recent months and unpaid stays; older paid nights roll over into
+// the compressed, immutable archive, so startup time and heap follow active bookings, not history.
+// With -Dhotel.shared=true several processes can share one data directory: each write holds a lock
+// on the directory and first replays what the other processes have journaled since.
+public class Hotel {
+    public enum BatchMode { ALL_OR_NOTHING, BEST_EFFORT }
+
+    private static final int STRIPES = 64;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private List<Room> rooms;
+    private Map<Integer, Room> roomsByNumber;
+    private Map<Room.Category, List<Room>> roomsByCategory;
+    private Map<Room.Category, AvailableRooms> availableByCategory;
+    private final OccupancyCalendar calendar = new OccupancyCalendar();
+    private final ReservationStore reservations = new ReservationStore(number -> roomsByNumber.get(number));
+    private BookingJournal journal;
+    private final File dataDir;
+    private static final String JOURNAL_FILE = "reservations.journal";
+    private static final int COMPACT_EVERY = Integer.getInteger("hotel.journal.compactEvery", 10000);
+    private final ReservationArchive archive;
+    private final int archiveAfterDays;
+    // The local day of the last rollover, so the hourly check archives at most once a day
+    private volatile long rolloverCheckedDay = Long.MIN_VALUE;
+    // Null when archiveAfterDays is negative
+    private final ScheduledExecutorService rollover;
+    // The archive's horizon recorded in the snapshot loaded at startup
+    private int loadedHorizon;
+    private final HotelMetrics metrics = new HotelMetrics(!"false".equals(System.getProperty("hotel.metrics")));
+    private static final long ANY_VERSION = -1;
+    // Nights that can be booked. Stores and snapshots keep nights as int epoch days, and the calendar and
+    // report counts span every day between the first and last night booked, so far-off dates are refused
+    // before anything is journaled.
+    static final LocalDate FIRST_NIGHT = LocalDate.of(1900, 1, 1);
+    static final LocalDate LAST_NIGHT = LocalDate.of(9999, 12, 31);
+    static final int FIRST_DAY = (int) FIRST_NIGHT.toEpochDay();
+    static final int LAST_DAY = (int) LAST_NIGHT.toEpochDay();
+    // In place of a journal sequence number: nothing was changed, so there is nothing to commit
+    private static final long REFUSED = -1;
+    // Null unless the directory is shared; lock order is dirLock, compactionLock, stripes
+    private final DataDirLock dirLock;
+    private final ScheduledExecutorService refresher;
+    // Identifies the snapshot file this process last loaded or wrote; any other means someone compacted
+    private volatile Object snapshotStamp;
+    private final BookingJournal.Replay replay = new BookingJournal.Replay() {
+        public void book(String guestName, int roomNumber, LocalDate date, boolean paid) {
+            applyBook(guestName, roomNumber, date, paid);
+        }
+        public void cancel(String guestName, int roomNumber) { applyCancel(guestName, roomNumber); }
+        public void pay(String guestName, int roomNumber) { applyPay(guestName, roomNumber); }
+    };
+
+    public Hotel() {
+        this(BookingJournal.Durability.valueOf(System.getProperty("hotel.journal.durability", "FSYNC_EACH")),
+             Long.getLong("hotel.journal.groupCommitMs", 5));
+    }
+
+    public Hotel(BookingJournal.Durability durability, long groupCommitMillis) {
+        this(new File("."), durability, groupCommitMillis);
+    }
+
+    // Keeps the snapshot, the journal and the archive in dataDir, which must exist
+    public Hotel(File dataDir, BookingJournal.Durability durability, long groupCommitMillis) {
+        this(dataDir, durability, groupCommitMillis, Integer.getInteger("hotel.archive.afterDays", 7),
+             Boolean.getBoolean("hotel.shared"));
+    }
+
+    public Hotel(File dataDir, BookingJournal.Durability durability, long groupCommitMillis, int archiveAfterDays) {
+        this(dataDir, durability, groupCommitMillis, archiveAfterDays, Boolean.getBoolean("hotel.shared"));
+    }
+
+    // Each calendar month's paid stays roll over into the archive once it has been over for archiveAfterDays;
+    // checked at startup and then every hour on a background thread. A negative value keeps every night in
+    // memory; archiveBefore still archives on request.
+    // shared lets other processes open the same directory at the same time, each with shared set: every
+    // write then takes an OS lock on the directory, and reads see the others' changes once this process
+    // has written or refreshed, which a background thread does every hotel.shared.refreshMs (1000).
+    public Hotel(File dataDir, BookingJournal.Durability durability, long groupCommitMillis, int archiveAfterDays,
+                 boolean shared) {
+        this.dataDir = dataDir;
+        this.archiveAfterDays = archiveAfterDays;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        try {
+            dirLock = shared ? DataDirLock.forDir(dataDir) : null;
+            if (dirLock != null) {
+                // Taken directly: there is nothing to refresh before the first load
+                dirLock.lock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error locking " + dataDir, e);
+        }
+        try {
+            try {
+                archive = new ReservationArchive(dataDir);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error opening archive " + ReservationArchive.DIR, e);
+            }
+            long snapshotSeq = loadSnapshot();
+            try {
+                journal = new BookingJournal(new File(dataDir, JOURNAL_FILE), durability, groupCommitMillis, snapshotSeq,
+                    replay, metrics);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error opening journal " + JOURNAL_FILE, e);
+            }
+            // A rollover that stopped between writing its segments and saving the snapshot left archived
+            // rows in the snapshot; the segments are the durable copy, so drop these
+            try {
+                if (dropArchived(loadedHorizon) > 0) {
+                    compact();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading archive " + ReservationArchive.DIR, e);
+            }
+            maybeRollOver();
+        } finally {
+            if (dirLock != null) {
+                dirLock.unlock();
+            }
+        }
+        if (dirLock != null) {
+            long refreshMillis = Long.getLong("hotel.shared.refreshMs", 1000);
+            refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "hotel-refresh");
+                t.setDaemon(true);
+                return t;
+            });
+            refresher.scheduleWithFixedDelay(this::backgroundRefresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        } else {
+            refresher = null;
+        }
+        if (archiveAfterDays >= 0) {
+            rollover = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "hotel-rollover");
+                t.setDaemon(true);
+                return t;
+            });
+            rollover.scheduleWithFixedDelay(this::backgroundRollOver, 1, 1, TimeUnit.HOURS);
+        } else {
+            rollover = null;
+        }
+        metrics.register(dataDir);
+    }
+
+    private void indexRooms() {
+        roomsByNumber = new HashMap<>();
+        roomsByCategory = new EnumMap<>(Room.Category.class);
+        availableByCategory = new EnumMap<>(Room.Category.class);
+        for (Room.Category category : Room.Category.values()) {
+            roomsByCategory.put(category, new ArrayList<>());
+            availableByCategory.put(category, new AvailableRooms());
+        }
+        for (Room room : rooms) {
+            roomsByNumber.put(room.getRoomNumber(), room);
+            roomsByCategory.get(room.getCategory()).add(room);
+            if (room.isAvailable()) {
+                availableByCategory.get(room.getCategory()).addRoom(room);
+            }
+        }
+    }
+
+    // Loads the snapshot (migrating legacy .dat files on first run) and returns the journal
+    // sequence number it covers
+    private long loadSnapshot() {
+        File file = new File(dataDir, BinarySnapshot.FILE);
+        try {
+            if (BinarySnapshot.migrate(dataDir)) {
+                System.err.println("Migrated rooms.dat and reservations.dat to " + BinarySnapshot.FILE);
+            }
+            if (!file.exists()) {
+                rooms = initializeDefaultRooms();
+                indexRooms();
+                loadedHorizon = archive.horizon();
+                saveSnapshot(0);
+                return 0;
+            }
+            if (dirLock != null) {
+                snapshotStamp = snapshotStamp();
+            }
+            BinarySnapshot.Contents contents = BinarySnapshot.read(file);
+            rooms = contents.rooms;
+            indexRooms();
+            ReservationStore.Columns columns = contents.columns;
+            for (int i = 0; i < columns.size; i++) {
+                calendar.mark(columns.rooms[i], columns.days[i]);
+            }
+            reservations.load(columns);
+            loadedHorizon = contents.archiveHorizon;
+            return contents.journalSeq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading snapshot " + file, e);
+        }
+    }
+
+    private List<Room> initializeDefaultRooms() {
+        List<Room> defaultRooms = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) defaultRooms.add(new Room(i, Room.Category.STANDARD));
+        for (int i = 6; i <= 8; i++) defaultRooms.add(new Room(i, Room.Category.DELUXE));
+        for (int i = 9; i <= 10; i++) defaultRooms.add(new Room(i, Room.Category.SUITE));
+        return defaultRooms;
+    }
+
+    private boolean saveSnapshot(long seq) {
+        long start = metrics.start();
+        File file = new File(dataDir, BinarySnapshot.FILE);
+        boolean saved = false;
+        try {
+            BinarySnapshot.write(file, rooms, reservations.columns(), seq, archive.horizon());
+            saved = true;
+            metrics.addBytesPersisted(file.length());
+            if (dirLock != null) {
+                snapshotStamp = snapshotStamp();
+            }
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot: " + e.getMessage());
+        }
+        metrics.record(HotelMetrics.Operation.SNAPSHOT_SAVE, start, saved);
+        return saved;
+    }
+
+    // File identity, modification time and size: a compaction renames a new file into place, so any of
+    // the three changing means the snapshot is not the one this process last read or wrote
+    private Object snapshotStamp() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(new File(dataDir, BinarySnapshot.FILE).toPath(),
+            BasicFileAttributes.class);
+        return Arrays.asList(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+    }
+
+    // Takes the directory lock when shared; the outermost hold first catches up on other processes' writes.
+    // Writers hold it until their journal record is written, not until it is synced: the next holder reads
+    // the record from the file either way, and need not wait out this process's fsync.
+    private void lockShared() {
+        if (dirLock == null) {
+            return;
+        }
+        try {
+            if (dirLock.lock()) {
+                try {
+                    refreshLocked();
+                } catch (RuntimeException e) {
+                    dirLock.unlock();
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error locking " + dataDir, e);
+        }
+    }
+
+    private void unlockShared() {
+        if (dirLock != null) {
+            dirLock.unlock();
+        }
+    }
+
+    // Applies what other processes sharing the directory have written since this one last looked. Writes
+    // do this on their own and a background thread does it every second, so calling it is only needed to
+    // make reads current right now. Does nothing unless the directory is shared.
+    public void refresh() {
+        lockShared();
+        unlockShared();
+    }
+
+    private void backgroundRefresh() {
+        try {
+            // Two stat calls when nothing changed, without waiting on a writer for the lock
+            if (snapshotStamp().equals(snapshotStamp) && !journal.hasUnread()) {
+                return;
+            }
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error refreshing from " + dataDir + ": " + e.getMessage());
+        }
+    }
+
+    // Replays the journal records other processes appended. After one of them compacted, picks up any
+    // segments it archived and rereads the journal from the start; if its snapshot covers records this
+    // process never saw, reloads the snapshot first. Callers hold the directory lock.
+    private void refreshLocked() {
+        try {
+            Object stamp = snapshotStamp();
+            boolean compacted = !stamp.equals(snapshotStamp);
+            if (!compacted && !journal.hasUnread()) {
+                return;
+            }
+            compactionLock.lock();
+            lockAll();
+            try {
+                if (compacted) {
+                    File file = new File(dataDir, BinarySnapshot.FILE);
+                    int droppedBefore = archive.horizon();
+                    archive.refresh();
+                    long snapshotSeq = BinarySnapshot.journalSeq(file);
+                    if (snapshotSeq > journal.lastSeq()) {
+                        BinarySnapshot.Contents contents = BinarySnapshot.read(file);
+                        reload(contents.columns);
+                        droppedBefore = contents.archiveHorizon;
+                    }
+                    dropArchived(droppedBefore);
+                    journal.rewind(snapshotSeq);
+                    snapshotStamp = stamp;
+                }
+                journal.catchUp(replay);
+            } finally {
+                unlockAll();
+                compactionLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading changes from " + dataDir, e);
+        }
+    }
+
+    // Replaces everything in memory with the snapshot's reservations; callers hold every stripe
+    private void reload(ReservationStore.Columns columns) {
+        calendar.clearAll();
+        for (int i = 0; i < columns.size; i++) {
+            calendar.mark(columns.rooms[i], columns.days[i]);
+        }
+        reservations.reload(columns);
+        for (Room room : rooms) {
+            setAvailable(room, !calendar.hasBookings(room.getRoomNumber()));
+            room.version++;
+        }
+    }
+
+    private ReentrantLock stripe(int roomNumber) {
+        return stripes[stripeIndex(roomNumber)];
+    }
+
+    private static int stripeIndex(int roomNumber) {
+        return (roomNumber * 0x9E3779B9) >>> 26;
+    }
+
+    // Folds the journal into a fresh snapshot once it has grown past COMPACT_EVERY records and past the
+    // reservation count: a snapshot costs O(reservations), so bulk imports into a large hotel stay linear
+    private void maybeCompact() {
+        if (shouldCompact() && compactionLock.tryLock()) {
+            try {
+                if (shouldCompact()) {
+                    compact();
+                }
+            } finally {
+                compactionLock.unlock();
+            }
+        }
+    }
+
+    private boolean shouldCompact() {
+        int records = journal.records();
+        return records >= COMPACT_EVERY && records >= reservations.size();
+    }
+
+    // Holds every stripe so the snapshot and the journal truncation see the same state
+    public void compact() {
+        lockShared();
+        lockAll();
+        try {
+            compactLocked();
+        } finally {
+            unlockAll();
+            unlockShared();
+        }
+    }
+
+    private void compactLocked() {
+        long seq = journal.lastSeq();
+        if (!saveSnapshot(seq)) {
+            // Keep the journal: it is the only durable copy of everything since the last snapshot
+            return;
+        }
+        try {
+            journal.reset();
+        } catch (IOException e) {
+            // Harmless: records up to seq are skipped on replay because the snapshot covers them
+            System.err.println("Error truncating journal: " + e.getMessage());
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.unlock();
+        }
+    }
+
+    // Archives the months that have been over for archiveAfterDays, if any are still in memory. Runs at
+    // most once per local day, at startup and then on the rollover thread, which nothing else waits for.
+    private void maybeRollOver() {
+        LocalDate today = LocalDate.now();
+        if (archiveAfterDays < 0 || today.toEpochDay() == rolloverCheckedDay) {
+            return;
+        }
+        rolloverCheckedDay = today.toEpochDay();
+        LocalDate cutoff = today.minusDays(archiveAfterDays).withDayOfMonth(1);
+        if (reservations.minDay() < cutoff.toEpochDay()) {
+            archiveBefore(cutoff);
+        }
+    }
+
+    private void backgroundRollOver() {
+        try {
+            maybeRollOver();
+        } catch (RuntimeException e) {
+            System.err.println("Error rolling over to the archive: " + e.getMessage());
+        }
+    }
+
+    // Moves every paid reservation for a night before cutoff into the archive and returns how many moved.
+    // Holds every stripe throughout: the segments are written and synced, the rows leave memory, then a
+    // snapshot without them replaces the journal. Unpaid stays stay in memory, where they can still be paid
+    // or cancelled, but nights before the archive's horizon can no longer be booked. Cutoffs at or before
+    // the horizon do nothing.
+    public int archiveBefore(LocalDate cutoff) {
+        int cutoffDay = (int) cutoff.toEpochDay();
+        lockShared();
+        compactionLock.lock();
+        lockAll();
+        try {
+            if (cutoffDay <= archive.horizon()) {
+                return 0;
+            }
+            long start = metrics.start();
+            boolean archived = false;
+            int from = archive.horizon();
+            ReservationStore.Columns paid = reservations.columnsBetween(from, cutoffDay, true);
+            try {
+                metrics.addBytesPersisted(archive.append(paid, cutoffDay));
+                archived = true;
+            } catch (IOException e) {
+                System.err.println("Error archiving reservations: " + e.getMessage());
+            }
+            // After a failed write the horizon stops at the last segment written; drop what got that far
+            int moved = forgetArchived(reservations.removeArchived(paid, from, archive.horizon()));
+            if (moved > 0) {
+                compactLocked();
+            }
+            metrics.record(HotelMetrics.Operation.ARCHIVE, start, archived);
+            return moved;
+        } finally {
+            unlockAll();
+            compactionLock.unlock();
+            unlockShared();
+        }
+    }
+
+    // Removes from memory the rows the archive took for nights in [fromHorizon, its horizon), found by
+    // reading those segments, and returns how many went; callers hold every stripe. fromHorizon is
+    // HORIZON_UNRECORDED for a snapshot written when every row before the horizon was archived.
+    private int dropArchived(int fromHorizon) throws IOException {
+        int horizon = archive.horizon();
+        if (fromHorizon == BinarySnapshot.HORIZON_UNRECORDED) {
+            return forgetArchived(reservations.removeBefore(horizon));
+        }
+        if (fromHorizon >= horizon) {
+            return 0;
+        }
+        return forgetArchived(reservations.removeArchived(archive.rows(fromHorizon, horizon), fromHorizon, horizon));
+    }
+
+    // Brings the calendar and room availability in line once dropped rows have left memory; the unpaid
+    // stays before the horizon are still booked
+    private int forgetArchived(int dropped) {
+        if (dropped > 0) {
+            int horizon = archive.horizon();
+            calendar.clearBefore(horizon);
+            ReservationStore.Columns held = reservations.columnsBetween(Integer.MIN_VALUE, horizon, false);
+            for (int i = 0; i < held.size; i++) {
+                calendar.mark(held.rooms[i], held.days[i]);
+            }
+            for (Room room : rooms) {
+                setAvailable(room, !calendar.hasBookings(room.getRoomNumber()));
+            }
+        }
+        return dropped;
+    }
+
+    // The first night that can still be booked, or null if nothing is archived
+    public LocalDate getArchiveHorizon() {
+        int horizon = archive.horizon();
+        return horizon == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(horizon);
+    }
+
+    public int getArchivedReservationCount() {
+        return archive.reservationCount();
+    }
+
+    public long getArchiveBytes() {
+        return archive.bytes();
+    }
+
+    // Throws if the record could not be made durable: the change is in memory and in the journal file, but
+    // may not survive a crash, and the caller must not be told otherwise
+    private void commit(long seq) {
+        if (seq < 0) {
+            return;
+        }
+        try {
+            journal.commit(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error syncing journal", e);
+        }
+        maybeCompact();
+    }
+
+    public void close() {
+        // Not shutdownNow: an interrupt would close the journal's channel under a running refresh or rollover
+        for (ScheduledExecutorService background : Arrays.asList(refresher, rollover)) {
+            if (background != null) {
+                background.shutdown();
+                try {
+                    background.awaitTermination(background == rollover ? 60 : 5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Error closing journal: " + e.getMessage());
+        }
+        metrics.unregister();
+    }
+
+    public HotelMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Live, read-only and allocation-free: the category's rooms with no bookings, kept up to date by
+    // every booking and cancellation. Copy it (new ArrayList<>(rooms)) to keep a stable result.
+    public List<Room> searchRooms(Room.Category category) {
+        return availableByCategory.get(category);
+    }
+
+    // How many of the category's rooms have no bookings at all, in O(1); a room booked on any night,
+    // however far off, does not count
+    public int availableRoomCount(Room.Category category) {
+        return availableByCategory.get(category).size();
+    }
+
+    // Keeps Room.isAvailable and the category's available set in step; called under the room's stripe
+    private void setAvailable(Room room, boolean available) {
+        if (room.isAvailable() == available) {
+            return;
+        }
+        room.setAvailable(available);
+        AvailableRooms set = availableByCategory.get(room.getCategory());
+        if (available) {
+            set.addRoom(room);
+        } else {
+            set.removeRoom(room);
+        }
+    }
+
+    // Rooms of the category with no booked night in [checkIn, checkOut)
+    public List<Room> searchRooms(Room.Category category, LocalDate checkIn, LocalDate checkOut) {
+        long start = metrics.start();
+        List<Room> free = new ArrayList<>();
+        for (Room room : roomsByCategory.get(category)) {
+            if (isRoomFree(room.getRoomNumber(), checkIn, checkOut)) {
+                free.add(room);
+            }
+        }
+        metrics.record(HotelMetrics.Operation.SEARCH, start, true);
+        return free;
+    }
+
+    public boolean isRoomFree(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        if (!roomsByNumber.containsKey(roomNumber)) {
+            return false;
+        }
+        ReentrantLock lock = stripe(roomNumber);
+        lock.lock();
+        try {
+            return calendar.isFree(roomNumber, checkIn, checkOut);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The room's change counter: every booking, cancellation or payment for it moves it on, whichever process
+    // made it. Versions are local to this Hotel, so only compare ones read from it; -1 for an unknown room.
+    public long getRoomVersion(int roomNumber) {
+        Room room = roomsByNumber.get(roomNumber);
+        return room == null ? -1 : room.version;
+    }
+
+    // Optimistic check for a decision made on what the caller saw at expectedVersion; called under the
+    // room's stripe, after catching up with other processes
+    private void checkVersion(int roomNumber, long expectedVersion) {
+        Room room = roomsByNumber.get(roomNumber);
+        if (expectedVersion != ANY_VERSION && room != null && room.version != expectedVersion) {
+            throw new ConcurrentModificationException("Room " + roomNumber + " has changed since it was read"
+                + " (version " + expectedVersion + ", now " + room.version + ")");
+        }
+    }
+
+    public boolean bookRoom(String guestName, int roomNumber, LocalDate date) {
+        return bookRoom(guestName, roomNumber, date, ANY_VERSION);
+    }
+
+    // Books only if the room is still at expectedVersion from getRoomVersion, and throws
+    // ConcurrentModificationException if anyone, here or in another process, has changed it since
+    public boolean bookRoom(String guestName, int roomNumber, LocalDate date, long expectedVersion) {
+        long start = metrics.start();
+        boolean done = false;
+        try {
+            long seq;
+            lockShared();
+            try {
+                seq = book(guestName, roomNumber, date, expectedVersion);
+            } finally {
+                unlockShared();
+            }
+            commit(seq);
+            done = seq != REFUSED;
+        } finally {
+            metrics.record(HotelMetrics.Operation.BOOK, start, done);
+        }
+        return done;
+    }
+
+    // Applies and journals a booking with its stripe held; returns the record to commit, or REFUSED
+    private long book(String guestName, int roomNumber, LocalDate date, long expectedVersion) {
+        long seq;
+        ReentrantLock lock = stripe(roomNumber);
+        lock.lock();
+        try {
+            checkVersion(roomNumber, expectedVersion);
+            if (!guestNameFits(guestName) || !nightFits(date) || date.toEpochDay() < archive.horizon()
+                || !applyBook(guestName, roomNumber, date, false)) {
+                return REFUSED;
+            }
+            try {
+                seq = journal.appendBook(guestName, roomNumber, date);
+            } catch (IOException e) {
+                // Not journaled, so not made: undo it and say so
+                unbook(roomsByNumber.get(roomNumber), date);
+                throw new UncheckedIOException("Error journaling booking", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return seq;
+    }
+
+    // The journal writes names as modified UTF-8 and the snapshot as UTF-8, each with a 16-bit length.
+    // Modified UTF-8 is never the shorter of the two, so a name that fits the journal fits both.
+    static boolean guestNameFits(String guestName) {
+        long bytes = 0;
+        for (int i = 0; i < guestName.length(); i++) {
+            char c = guestName.charAt(i);
+            bytes += c >= 1 && c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+        }
+        return bytes <= BinarySnapshot.MAX_NAME_BYTES;
+    }
+
+    static boolean nightFits(LocalDate date) {
+        return dayFits(date.toEpochDay());
+    }
+
+    static boolean dayFits(long day) {
+        return day >= FIRST_DAY && day <= LAST_DAY;
+    }
+
+    // A room can be booked on any night it is not already booked; isAvailable means no bookings at all
+    private boolean applyBook(String guestName, int roomNumber, LocalDate date, boolean paid) {
+        Room room = roomsByNumber.get(roomNumber);
+        // Checking the night here too skips such bookings in journals written before it was checked
+        if (room == null || !nightFits(date) || calendar.isBooked(roomNumber, date)) {
+            return false;
+        }
+        rebook(guestName, room, date, paid);
+        return true;
+    }
+
+    private void rebook(String guestName, Room room, LocalDate date, boolean paid) {
+        calendar.mark(room.getRoomNumber(), date);
+        setAvailable(room, false);
+        reservations.add(guestName, room.getRoomNumber(), date, paid);
+        room.version++;
+    }
+
+    public boolean cancelReservation(String guestName, int roomNumber) {
+        return cancelReservation(guestName, roomNumber, ANY_VERSION);
+    }
+
+    // As bookRoom with a version: throws ConcurrentModificationException if the room has changed since
+    public boolean cancelReservation(String guestName, int roomNumber, long expectedVersion) {
+        long start = metrics.start();
+        boolean done = false;
+        try {
+            long seq;
+            lockShared();
+            try {
+                seq = cancel(guestName, roomNumber, expectedVersion);
+            } finally {
+                unlockShared();
+            }
+            commit(seq);
+            done = seq != REFUSED;
+        } finally {
+            metrics.record(HotelMetrics.Operation.CANCEL, start, done);
+        }
+        return done;
+    }
+
+    private long cancel(String guestName, int roomNumber, long expectedVersion) {
+        long seq;
+        ReentrantLock lock = stripe(roomNumber);
+        lock.lock();
+        try {
+            checkVersion(roomNumber, expectedVersion);
+            Reservation res = applyCancel(guestName, roomNumber);
+            if (res == null) {
+                return REFUSED;
+            }
+            try {
+                seq = journal.appendCancel(guestName, roomNumber);
+            } catch (IOException e) {
+                rebook(res.getGuestName(), res.getRoom(), res.getDate(), res.isPaid());
+                throw new UncheckedIOException("Error journaling cancellation", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return seq;
+    }
+
+    private Reservation applyCancel(String guestName, int roomNumber) {
+        Reservation res = reservations.find(guestName, roomNumber);
+        if (res != null) {
+            unbook(res.getRoom(), res.getDate());
+        }
+        return res;
+    }
+
+    private void unbook(Room room, LocalDate date) {
+        reservations.remove(room.getRoomNumber(), date);
+        calendar.clear(room.getRoomNumber(), date);
+        setAvailable(room, !calendar.hasBookings(room.getRoomNumber()));
+        room.version++;
+    }
+
+    // Read-only live view of the reservations in memory, archived ones excluded; order is not stable
+    // across cancellations
+    public List<Reservation> getReservations() {
+        return reservations.view();
+    }
+
+    // Row access by index for views that page through the list; null once index is past the end
+    public Reservation getReservation(int index) {
+        return reservations.get(index);
+    }
+
+    public int getReservationCount() {
+        return reservations.size();
+    }
+
+    // Returns the reservation count at registration; the listener sees every change after it
+    public int addReservationListener(ReservationListener listener) {
+        return reservations.addListener(listener);
+    }
+
+    public void removeReservationListener(ReservationListener listener) {
+        reservations.removeListener(listener);
+    }
+
+    // Consistent copy, safe to iterate while other threads are booking; builds a Reservation per row
+    public List<Reservation> snapshotReservations() {
+        return reservations.snapshot();
+    }
+
+    // A consistent copy of at most limit reservations from position offset on, in getReservations() order
+    public List<Reservation> snapshotReservations(int offset, int limit) {
+        return reservations.snapshot(offset, limit);
+    }
+
+    // Ordered by night; the calendar already lists the room's nights, so the store needs no room index
+    public Collection<Reservation> getReservationsForRoom(int roomNumber) {
+        List<Reservation> list = new ArrayList<>();
+        ReentrantLock lock = stripe(roomNumber);
+        lock.lock();
+        try {
+            for (LocalDate night : calendar.nights(roomNumber)) {
+                Reservation res = reservations.get(roomNumber, night);
+                if (res != null) {
+                    list.add(res);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return list;
+    }
+
+    // Every reservation for a night in [from, to], archived or not, ordered by night, then room; a null bound
+    // is open. Archived months are decompressed one at a time as the stream is consumed, so history of any
+    // length streams in constant memory. Close the stream to release the segment being read:
+    //   try (Stream<Reservation> stays = hotel.reservationHistory(from, to)) { ... }
+    public Stream<Reservation> reservationHistory(LocalDate from, LocalDate to) {
+        int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+        int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+        List<ArchiveSegment> segments;
+        List<Reservation> current;
+        int horizon;
+        // No rollover between the two reads, or its rows would be seen twice or not at all
+        compactionLock.lock();
+        try {
+            segments = archive.segments(fromDay, toDay);
+            current = reservations.between(fromDay, toDay);
+            horizon = archive.horizon();
+        } finally {
+            compactionLock.unlock();
+        }
+        Stream<Reservation> archived = segments.stream().flatMap(segment -> segment.stream(roomsByNumber::get, fromDay, toDay));
+        // Unpaid stays before the horizon are still in memory and go in among the archived ones
+        int held = 0;
+        while (held < current.size() && current.get(held).getDate().toEpochDay() < horizon) {
+            held++;
+        }
+        if (held > 0) {
+            archived = merge(archived, current.subList(0, held));
+        }
+        return Stream.concat(archived, current.subList(held, current.size()).stream());
+    }
+
+    // Both ordered by night, then room; reads archived no further ahead than the element it returns
+    private static Stream<Reservation> merge(Stream<Reservation> archived, List<Reservation> held) {
+        Iterator<Reservation> rest = archived.iterator();
+        Iterator<Reservation> merged = new Iterator<Reservation>() {
+            private Reservation peeked;
+            private int next;
+
+            public boolean hasNext() {
+                return peeked != null || next < held.size() || rest.hasNext();
+            }
+
+            public Reservation next() {
+                if (peeked == null && rest.hasNext()) {
+                    peeked = rest.next();
+                }
+                if (peeked != null && (next == held.size() || before(peeked, held.get(next)))) {
+                    Reservation res = peeked;
+                    peeked = null;
+                    return res;
+                }
+                if (next == held.size()) {
+                    throw new NoSuchElementException();
+                }
+                return held.get(next++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+            .onClose(archived::close);
+    }
+
+    private static boolean before(Reservation a, Reservation b) {
+        int order = a.getDate().compareTo(b.getDate());
+        return order < 0 || order == 0 && a.getRoom().getRoomNumber() < b.getRoom().getRoomNumber();
+    }
+
+    // Visits every reservation for a night in [fromDay, toDay], archived ones first, for bulk export
+    void forEachReservation(int fromDay, int toDay, ArchiveSegment.RowVisitor visitor) throws IOException {
+        List<ArchiveSegment> segments;
+        ReservationStore.Columns columns;
+        compactionLock.lock();
+        try {
+            segments = archive.segments(fromDay, toDay);
+            columns = reservations.columns();
+        } finally {
+            compactionLock.unlock();
+        }
+        for (ArchiveSegment segment : segments) {
+            segment.forEach(fromDay, toDay, visitor);
+        }
+        for (int i = 0; i < columns.size; i++) {
+            if (columns.days[i] >= fromDay && columns.days[i] <= toDay) {
+                visitor.row(columns.guestNames[columns.guests[i]], columns.rooms[i], columns.days[i], columns.paid.get(i));
+            }
+        }
+    }
+
+    // Occupancy and revenue per category for the nights [from, to], by day, week or month, archived nights
+    // included; a null bound means the first or last night ever booked. The first report scans every
+    // archive segment and reservation in parallel on the common pool; after that each booking,
+    // cancellation and payment updates the counts as it happens.
+    public OccupancyReport occupancyReport(OccupancyReport.Granularity granularity, LocalDate from, LocalDate to) {
+        long start = metrics.start();
+        OccupancyIndex.Slice counts = reservations.occupancy(from == null ? null : (int) from.toEpochDay(),
+            to == null ? null : (int) to.toEpochDay());
+        if (counts == null) {
+            rebuildOccupancy(ForkJoinPool.commonPool(), false);
+            counts = reservations.occupancy(from == null ? null : (int) from.toEpochDay(),
+                to == null ? null : (int) to.toEpochDay());
+        }
+        Map<Room.Category, Integer> roomCounts = new EnumMap<>(Room.Category.class);
+        for (Map.Entry<Room.Category, List<Room>> entry : roomsByCategory.entrySet()) {
+            roomCounts.put(entry.getKey(), entry.getValue().size());
+        }
+        OccupancyReport report = new OccupancyReport(granularity, counts, roomCounts);
+        metrics.record(HotelMetrics.Operation.REPORT, start, true);
+        return report;
+    }
+
+    // Recounts every reservation on the pool, which sets how many cores the scan uses; bookings wait for the
+    // in-memory part of it
+    public void rebuildOccupancy(ForkJoinPool pool) {
+        rebuildOccupancy(pool, true);
+    }
+
+    private void rebuildOccupancy(ForkJoinPool pool, boolean rebuild) {
+        // Held so no rollover moves rows between the archive count and the in-memory count
+        compactionLock.lock();
+        try {
+            if (rebuild || !reservations.hasOccupancy()) {
+                Room.Category[] categoryByRoom = categoryByRoom();
+                OccupancyIndex archived = OccupancyIndex.count(archive.segments(), categoryByRoom, pool);
+                reservations.buildOccupancy(categoryByRoom, archived, pool);
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    private Room.Category[] categoryByRoom() {
+        int maxRoom = 0;
+        for (Room room : rooms) {
+            maxRoom = Math.max(maxRoom, room.getRoomNumber());
+        }
+        Room.Category[] categoryByRoom = new Room.Category[maxRoom + 1];
+        for (Room room : rooms) {
+            categoryByRoom[room.getRoomNumber()] = room.getCategory();
+        }
+        return categoryByRoom;
+    }
+
+    public Collection<Reservation> getReservationsForGuest(String guestName) {
+        return reservations.forGuest(guestName);
+    }
+
+    // Type-ahead for guest lookup: guests with a reservation in memory whose name starts with prefix,
+    // ignoring case, in case-insensitive order; at most limit. The first call indexes every guest name,
+    // which takes seconds with millions of guests; bookings and cancellations keep it current after that.
+    public List<String> suggestGuests(String prefix, int limit) {
+        long start = metrics.start();
+        List<String> names = reservations.guestsStartingWith(prefix, limit);
+        metrics.record(HotelMetrics.Operation.GUEST_SEARCH, start, true);
+        return names;
+    }
+
+    public boolean payReservation(String guestName, int roomNumber) {
+        return payReservation(guestName, roomNumber, ANY_VERSION);
+    }
+
+    // As bookRoom with a version: throws ConcurrentModificationException if the room has changed since
+    public boolean payReservation(String guestName, int roomNumber, long expectedVersion) {
+        long start = metrics.start();
+        boolean done = false;
+        try {
+            long seq;
+            lockShared();
+            try {
+                seq = pay(guestName, roomNumber, expectedVersion);
+            } finally {
+                unlockShared();
+            }
+            commit(seq);
+            done = seq != REFUSED;
+        } finally {
+            metrics.record(HotelMetrics.Operation.PAY, start, done);
+        }
+        return done;
+    }
+
+    private long pay(String guestName, int roomNumber, long expectedVersion) {
+        long seq;
+        ReentrantLock lock = stripe(roomNumber);
+        lock.lock();
+        try {
+            checkVersion(roomNumber, expectedVersion);
+            Reservation res = reservations.find(guestName, roomNumber);
+            if (res == null) {
+                return REFUSED;
+            }
+            setPaid(res.getRoom(), res.getDate(), true);
+            try {
+                seq = journal.appendPay(guestName, roomNumber);
+            } catch (IOException e) {
+                setPaid(res.getRoom(), res.getDate(), res.isPaid());
+                throw new UncheckedIOException("Error journaling payment", e);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return seq;
+    }
+
+    private Reservation applyPay(String guestName, int roomNumber) {
+        Reservation res = reservations.find(guestName, roomNumber);
+        if (res != null) {
+            setPaid(res.getRoom(), res.getDate(), true);
+        }
+        return res;
+    }
+
+    private void setPaid(Room room, LocalDate date, boolean paid) {
+        reservations.setPaid(room.getRoomNumber(), date, paid);
+        room.version++;
+    }
+
+    // Applies the rows in order and commits the journal once for the whole batch.
+    // ALL_OR_NOTHING holds the stripe of every room involved, tries every row so the result names all
+    // the bad ones, and undoes the applied rows if any failed; the batch is journaled as one record.
+    // BEST_EFFORT takes one stripe per row, so single bookings are not held up behind a long batch.
+    public BatchResult applyBatch(List<BatchOperation> ops, BatchMode mode) {
+        long start = metrics.start();
+        String[] errors = new String[ops.size()];
+        long seq;
+        lockShared();
+        try {
+            seq = mode == BatchMode.ALL_OR_NOTHING ? applyAllOrNothing(ops, errors) : applyBestEffort(ops, errors);
+        } finally {
+            unlockShared();
+        }
+        commit(seq);
+        // A failed ALL_OR_NOTHING batch has an error on every row
+        BatchResult result = new BatchResult(errors, mode == BatchMode.BEST_EFFORT || errors.length == 0 || errors[0] == null);
+        metrics.record(HotelMetrics.Operation.BATCH, start, result.successCount() == result.size());
+        return result;
+    }
+
+    private long applyAllOrNothing(List<BatchOperation> ops, String[] errors) {
+        boolean[] needed = new boolean[STRIPES];
+        for (BatchOperation op : ops) {
+            needed[stripeIndex(op.getRoomNumber())] = true;
+        }
+        // Ascending stripe order, as in compact(), so concurrent batches cannot deadlock
+        for (int i = 0; i < STRIPES; i++) {
+            if (needed[i]) stripes[i].lock();
+        }
+        long seq = REFUSED;
+        boolean failed = false;
+        try {
+            Deque<Runnable> undo = new ArrayDeque<>();
+            for (int i = 0; i < errors.length; i++) {
+                errors[i] = applyOperation(ops.get(i), undo);
+                failed |= errors[i] != null;
+            }
+            if (!failed && !ops.isEmpty()) {
+                try {
+                    seq = journal.appendBatch(ops);
+                } catch (IOException e) {
+                    failed = true;
+                    Arrays.fill(errors, "Error journaling batch: " + e.getMessage());
+                }
+            }
+            if (failed) {
+                while (!undo.isEmpty()) {
+                    undo.pop().run();
+                }
+                for (int i = 0; i < errors.length; i++) {
+                    if (errors[i] == null) errors[i] = "Rolled back: another row in the batch failed";
+                }
+            }
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--) {
+                if (needed[i]) stripes[i].unlock();
+            }
+        }
+        return failed ? REFUSED : seq;
+    }
+
+    private long applyBestEffort(List<BatchOperation> ops, String[] errors) {
+        long seq = REFUSED;
+        for (int i = 0; i < errors.length; i++) {
+            BatchOperation op = ops.get(i);
+            ReentrantLock lock = stripe(op.getRoomNumber());
+            lock.lock();
+            try {
+                Deque<Runnable> undo = new ArrayDeque<>(1);
+                errors[i] = applyOperation(op, undo);
+                if (errors[i] == null) {
+                    try {
+                        seq = Math.max(seq, journalOperation(op));
+                    } catch (IOException e) {
+                        // Not journaled, so not applied
+                        undo.pop().run();
+                        errors[i] = "Error journaling " + op + ": " + e.getMessage();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return seq;
+    }
+
+    // Applies one row with its stripe held and returns why it failed, or null; pushes the inverse onto undo if given
+    private String applyOperation(BatchOperation op, Deque<Runnable> undo) {
+        String guestName = op.getGuestName();
+        int roomNumber = op.getRoomNumber();
+        if (guestName == null || guestName.trim().isEmpty()) {
+            return "Missing guest name";
+        }
+        if (!roomsByNumber.containsKey(roomNumber)) {
+            return "Unknown room " + roomNumber;
+        }
+        switch (op.getType()) {
+            case BOOK: {
+                if (op.getDate() == null) {
+                    return "Missing date";
+                }
+                LocalDate date = op.getDate();
+                if (!nightFits(date)) {
+                    return "Night " + date + " is outside " + FIRST_NIGHT + " to " + LAST_NIGHT;
+                }
+                if (date.toEpochDay() < archive.horizon()) {
+                    return "Night " + date + " is archived";
+                }
+                if (!guestNameFits(guestName)) {
+                    return "Guest name too long";
+                }
+                if (!applyBook(guestName, roomNumber, date, op.isPaid())) {
+                    return "Room " + roomNumber + " is already booked on " + date;
+                }
+                if (undo != null) undo.push(() -> unbook(roomsByNumber.get(roomNumber), date));
+                return null;
+            }
+            case CANCEL: {
+                Reservation res = applyCancel(guestName, roomNumber);
+                if (res == null) {
+                    return "No reservation for " + guestName + " in room " + roomNumber;
+                }
+                if (undo != null) undo.push(() -> rebook(res.getGuestName(), res.getRoom(), res.getDate(), res.isPaid()));
+                return null;
+            }
+            default: {
+                Reservation res = reservations.find(guestName, roomNumber);
+                if (res == null) {
+                    return "No reservation for " + guestName + " in room " + roomNumber;
+                }
+                boolean wasPaid = res.isPaid();
+                setPaid(res.getRoom(), res.getDate(), true);
+                if (undo != null) undo.push(() -> setPaid(res.getRoom(), res.getDate(), wasPaid));
+                return null;
+            }
+        }
+    }
+
+    private long journalOperation(BatchOperation op) throws IOException {
+        switch (op.getType()) {
+            case BOOK: return journal.appendBook(op.getGuestName(), op.getRoomNumber(), op.getDate(), op.isPaid());
+            case CANCEL: return journal.appendCancel(op.getGuestName(), op.getRoomNumber());
+            default: return journal.appendPay(op.getGuestName(), op.getRoomNumber());
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.codealpha.hotel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+// Many properties, one Hotel shard each, every shard in its own subdirectory of the chain's root.
+// Nothing is loaded up front: a shard's Hotel is opened on first use, on that shard's executor. Each
+// shard runs its calls on a single thread of its own, so properties never contend with each other;
+// the thread exits after a minute idle, so hundreds of quiet properties hold no threads.
+public class HotelChain implements Closeable {
+    private static final long IDLE_SECONDS = 60;
+
+    // Per-property search results within the budget, plus the properties that missed it or failed
+    public static final class SearchResult {
+        private final Map<String, List<Room>> roomsByProperty;
+        private final Set<String> timedOut;
+        private final Map<String, String> failed;
+
+        SearchResult(Map<String, List<Room>> roomsByProperty, Set<String> timedOut, Map<String, String> failed) {
+            this.roomsByProperty = Collections.unmodifiableMap(roomsByProperty);
+            this.timedOut = Collections.unmodifiableSet(timedOut);
+            this.failed = Collections.unmodifiableMap(failed);
+        }
+
+        // Ordered by property id; properties with no matching rooms map to an empty list
+        public Map<String, List<Room>> getRoomsByProperty() { return roomsByProperty; }
+        public Set<String> getTimedOut() { return timedOut; }
+        public Map<String, String> getFailed() { return failed; }
+        public boolean isComplete() { return timedOut.isEmpty() && failed.isEmpty(); }
+
+        public int roomCount() {
+            int count = 0;
+            for (List<Room> rooms : roomsByProperty.values()) {
+                count += rooms.size();
+            }
+            return count;
+        }
+    }
+
+    private final class Shard {
+        final String id;
+        final File dir;
+        final ThreadPoolExecutor executor;
+        private CompletableFuture<Hotel> hotel;
+
+        Shard(String id) {
+            this.id = id;
+            this.dir = new File(root, id);
+            executor = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, "shard-" + id);
+                t.setDaemon(true);
+                return t;
+            });
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        // Opens the Hotel on first call; a failed open is retried by the next call
+        synchronized CompletableFuture<Hotel> hotel() {
+            if (hotel == null || hotel.isCompletedExceptionally()) {
+                hotel = CompletableFuture.supplyAsync(() -> new Hotel(dir, durability, groupCommitMillis), executor);
+            }
+            return hotel;
+        }
+
+        synchronized boolean isLoaded() {
+            return hotel != null && hotel.isDone() && !hotel.isCompletedExceptionally();
+        }
+
+        // A call whose future is cancelled, or otherwise completed, before its turn on the shard's thread
+        // is skipped
+        <T> CompletableFuture<T> submit(Function<Hotel, T> call) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            hotel().whenCompleteAsync((h, e) -> {
+                if (result.isDone()) {
+                    return;
+                }
+                if (e != null) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    result.complete(call.apply(h));
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }, executor);
+            return result;
+        }
+
+        // Closes the Hotel on the shard's thread, then lets the thread go
+        CompletableFuture<Void> close() {
+            CompletableFuture<Hotel> opened;
+            synchronized (this) {
+                opened = hotel;
+            }
+            if (opened == null) {
+                executor.shutdown();
+                return CompletableFuture.completedFuture(null);
+            }
+            return opened.thenAcceptAsync(Hotel::close, executor)
+                .exceptionally(e -> null)
+                .whenComplete((v, e) -> executor.shutdown());
+        }
+    }
+
+    private final File root;
+    private final BookingJournal.Durability durability;
+    private final long groupCommitMillis;
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+
+    // Every subdirectory of root is a property; root must exist
+    public HotelChain(File root, BookingJournal.Durability durability, long groupCommitMillis) {
+        this.root = root;
+        this.durability = durability;
+        this.groupCommitMillis = groupCommitMillis;
+        File[] dirs = root.listFiles(File::isDirectory);
+        if (dirs != null) {
+            for (File dir : dirs) {
+                shards.put(dir.getName(), new Shard(dir.getName()));
+            }
+        }
+    }
+
+    public Set<String> properties() {
+        return new TreeSet<>(shards.keySet());
+    }
+
+    public int loadedCount() {
+        int loaded = 0;
+        for (Shard shard : shards.values()) {
+            if (shard.isLoaded()) loaded++;
+        }
+        return loaded;
+    }
+
+    // Creates the property's directory and a snapshot holding its rooms; it loads on first use like any other
+    public void addProperty(String id, Collection<Room> rooms) throws IOException {
+        if (id.isEmpty() || id.startsWith(".") || id.contains(File.separator) || id.contains("/")) {
+            throw new IllegalArgumentException("Invalid property id " + id);
+        }
+        File dir = new File(root, id);
+        if (shards.containsKey(id) || dir.exists()) {
+            throw new IllegalArgumentException("Property " + id + " already exists");
+        }
+        if (!dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        BinarySnapshot.write(new File(dir, BinarySnapshot.FILE), rooms, Collections.<Reservation>emptyList(), 0);
+        shards.put(id, new Shard(id));
+    }
+
+    public CompletableFuture<Hotel> hotel(String property) {
+        return shard(property).hotel();
+    }
+
+    // Runs the call on the property's own thread, after loading it if need be
+    public <T> CompletableFuture<T> submit(String property, Function<Hotel, T> call) {
+        return shard(property).submit(call);
+    }
+
+    public CompletableFuture<Boolean> bookRoom(String property, String guestName, int roomNumber, LocalDate date) {
+        return submit(property, h -> h.bookRoom(guestName, roomNumber, date));
+    }
+
+    public CompletableFuture<Boolean> cancelReservation(String property, String guestName, int roomNumber) {
+        return submit(property, h -> h.cancelReservation(guestName, roomNumber));
+    }
+
+    public CompletableFuture<Boolean> payReservation(String property, String guestName, int roomNumber) {
+        return submit(property, h -> h.payReservation(guestName, roomNumber));
+    }
+
+    public SearchResult searchRooms(Room.Category category, LocalDate checkIn, LocalDate checkOut, long budgetMillis) {
+        return searchRooms(shards.keySet(), category, checkIn, checkOut, budgetMillis);
+    }
+
+    // Asks every listed property at once and waits at most budgetMillis for the answers. Properties not
+    // yet loaded start loading and usually miss the first budget; they are listed as timed out and
+    // answer quickly next time. Searches that miss the budget are cancelled, so a busy shard skips them
+    // instead of answering no one. Null dates search for rooms with no bookings at all.
+    public SearchResult searchRooms(Collection<String> properties, Room.Category category, LocalDate checkIn,
+                                    LocalDate checkOut, long budgetMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        Map<String, CompletableFuture<List<Room>>> pending = new LinkedHashMap<>();
+        for (String property : new TreeSet<>(properties)) {
+            pending.put(property, submit(property, h -> checkIn == null
+                ? new ArrayList<>(h.searchRooms(category))
+                : h.searchRooms(category, checkIn, checkOut)));
+        }
+        try {
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture<?>[0]))
+                .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Sorted out per property below: late ones are timed out, failed ones carry their error
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Map<String, List<Room>> found = new TreeMap<>();
+        Set<String> timedOut = new TreeSet<>();
+        Map<String, String> failed = new TreeMap<>();
+        for (Map.Entry<String, CompletableFuture<List<Room>>> entry : pending.entrySet()) {
+            CompletableFuture<List<Room>> future = entry.getValue();
+            if (!future.isDone() && future.cancel(false)) {
+                timedOut.add(entry.getKey());
+            } else if (future.isCompletedExceptionally()) {
+                failed.put(entry.getKey(), errorOf(future));
+            } else {
+                found.put(entry.getKey(), future.join());
+            }
+        }
+        return new SearchResult(found, timedOut, failed);
+    }
+
+    private static String errorOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return "";
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+        }
+    }
+
+    private Shard shard(String property) {
+        Shard shard = shards.get(property);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown property " + property);
+        }
+        return shard;
+    }
+
+    // Closes every loaded property on its own thread, all in parallel
+    @Override
+    public void close() {
+        List<CompletableFuture<Void>> closing = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            closing.add(shard.close());
+        }
+        CompletableFuture.allOf(closing.toArray(new CompletableFuture<?>[0])).join();
+    }
+}
@@ -0,0 +1,212 @@
+package com.codealpha.hotel;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InvalidAttributeValueException;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+// Latency histograms, failure counts and bytes persisted for one Hotel, readable in process and over
+// JMX as com.codealpha.hotel:type=HotelMetrics,dir="<data dir>". Callers bracket an operation with
+// start() and record(); when disabled, start() returns 0 without reading the clock and record()
+// returns at once, so the cost is one volatile read. Enabled by default; -Dhotel.metrics=false or the
+// Enabled attribute turns it off.
+public final class HotelMetrics implements DynamicMBean {
+    // Book, cancel, pay, batch and report time whole calls, journal commit included; the journal and snapshot
+    // entries time just their disk I/O, so the two can be compared. Archive times a whole rollover. Search is the date-range search:
+    // the category search only hands out a live list, and two clock reads would cost 30 times more.
+    // GuestSearch is the guest-name type-ahead.
+    public enum Operation {
+        BOOK, CANCEL, PAY, SEARCH, GUEST_SEARCH, BATCH, REPORT, JOURNAL_WRITE, JOURNAL_SYNC, SNAPSHOT_SAVE, ARCHIVE;
+
+        // BOOK -> "Book", JOURNAL_SYNC -> "JournalSync"
+        public String displayName() {
+            StringBuilder sb = new StringBuilder();
+            for (String word : name().split("_")) {
+                sb.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+            }
+            return sb.toString();
+        }
+    }
+
+    private volatile boolean enabled;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] failures = new LongAdder[Operation.values().length];
+    private final LongAdder bytesPersisted = new LongAdder();
+    private final Map<String, Supplier<Object>> attributes = new LinkedHashMap<>();
+    private final MBeanInfo info;
+    private ObjectName registeredName;
+
+    public HotelMetrics(boolean enabled) {
+        this.enabled = enabled;
+        for (Operation op : Operation.values()) {
+            latencies[op.ordinal()] = new LatencyHistogram();
+            failures[op.ordinal()] = new LongAdder();
+        }
+        info = buildInfo();
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public void record(Operation op, long start, boolean success) {
+        if (start == 0) {
+            return;
+        }
+        latencies[op.ordinal()].record(System.nanoTime() - start);
+        if (!success) {
+            failures[op.ordinal()].increment();
+        }
+    }
+
+    public void addBytesPersisted(long bytes) {
+        if (enabled) {
+            bytesPersisted.add(bytes);
+        }
+    }
+
+    public LatencyHistogram latency(Operation op) { return latencies[op.ordinal()]; }
+
+    public long failures(Operation op) { return failures[op.ordinal()].sum(); }
+
+    public long bytesPersisted() { return bytesPersisted.sum(); }
+
+    public void reset() {
+        for (Operation op : Operation.values()) {
+            latencies[op.ordinal()].reset();
+            failures[op.ordinal()].reset();
+        }
+        bytesPersisted.reset();
+    }
+
+    // Registers with the platform MBean server; a second Hotel on the same directory keeps unregistered metrics
+    void register(File dataDir) {
+        try {
+            ObjectName name = new ObjectName("com.codealpha.hotel:type=HotelMetrics,dir="
+                + ObjectName.quote(dataDir.getAbsoluteFile().toPath().normalize().toString()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean: " + e.getMessage());
+        }
+    }
+
+    void unregister() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            System.err.println("Error unregistering metrics MBean: " + e.getMessage());
+        }
+        registeredName = null;
+    }
+
+    private MBeanInfo buildInfo() {
+        List<MBeanAttributeInfo> infos = new ArrayList<>();
+        infos.add(new MBeanAttributeInfo("Enabled", "boolean", "Whether operations are being timed", true, true, true));
+        attributes.put("Enabled", () -> enabled);
+        infos.add(new MBeanAttributeInfo("BytesPersisted", "long", "Journal and snapshot bytes written", true, false, false));
+        attributes.put("BytesPersisted", this::bytesPersisted);
+        for (Operation op : Operation.values()) {
+            String prefix = op.displayName();
+            LatencyHistogram histogram = latency(op);
+            addAttribute(infos, prefix + "Count", "long", "Timed calls", histogram::count);
+            addAttribute(infos, prefix + "Failures", "long", "Calls that failed", () -> failures(op));
+            addAttribute(infos, prefix + "P50Micros", "double", "Median latency", () -> histogram.percentileNanos(50) / 1000.0);
+            addAttribute(infos, prefix + "P99Micros", "double", "99th percentile latency", () -> histogram.percentileNanos(99) / 1000.0);
+            addAttribute(infos, prefix + "MaxMicros", "double", "Worst latency", () -> histogram.maxNanos() / 1000.0);
+            addAttribute(infos, prefix + "TotalMillis", "double", "Time spent in all calls", () -> histogram.totalNanos() / 1e6);
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clears every histogram and counter",
+            new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(getClass().getName(), "Hotel operation metrics",
+            infos.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] { reset }, null);
+    }
+
+    private void addAttribute(List<MBeanAttributeInfo> infos, String name, String type, String description, Supplier<Object> getter) {
+        infos.add(new MBeanAttributeInfo(name, type, description, true, false, false));
+        attributes.put(name, getter);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Supplier<Object> getter = attributes.get(attribute);
+        if (getter == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return getter.get();
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException, InvalidAttributeValueException {
+        if (!"Enabled".equals(attribute.getName())) {
+            throw new AttributeNotFoundException(attribute.getName() + " is read-only or unknown");
+        }
+        if (!(attribute.getValue() instanceof Boolean)) {
+            throw new InvalidAttributeValueException("Enabled takes a boolean");
+        }
+        setEnabled((Boolean) attribute.getValue());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            Supplier<Object> getter = attributes.get(name);
+            if (getter != null) {
+                list.add(new Attribute(name, getter.get()));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList list) {
+        AttributeList set = new AttributeList();
+        for (Attribute attribute : list.asList()) {
+            try {
+                setAttribute(attribute);
+                set.add(attribute);
+            } catch (JMException e) {
+                System.err.println("Error setting " + attribute.getName() + ": " + e.getMessage());
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+        if ("reset".equals(action)) {
+            reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(action));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        return info;
+    }
+}
@@ -0,0 +1,25 @@
+package com.codealpha.hotel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+// Reads .dat files written before the classes moved into com.codealpha.hotel, when Room and
+// Reservation lived in the default package. Field layout and serialVersionUID are unchanged.
+class LegacyObjectInputStream extends ObjectInputStream {
+    LegacyObjectInputStream(InputStream in) throws IOException {
+        super(in);
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+        ObjectStreamClass desc = super.readClassDescriptor();
+        switch (desc.getName()) {
+            case "Room": return ObjectStreamClass.lookup(Room.class);
+            case "Room$Category": return ObjectStreamClass.lookup(Room.Category.class);
+            case "Reservation": return ObjectStreamClass.lookup(Reservation.class);
+            default: return desc;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.codealpha.hotel;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-room occupancy by night, one bit per epoch day relative to the room's earliest booked night.
+// The map is concurrent; each room's bits must only be touched under that room's lock in Hotel.
+public class OccupancyCalendar {
+    private static final class Nights {
+        long base;
+        BitSet bits = new BitSet();
+    }
+
+    private final Map<Integer, Nights> nightsByRoom = new ConcurrentHashMap<>();
+
+    public void mark(int roomNumber, LocalDate date) {
+        mark(roomNumber, date.toEpochDay());
+    }
+
+    // Only nights Hotel can book, so a room's bits never span more than that window
+    public void mark(int roomNumber, long day) {
+        if (!Hotel.dayFits(day)) {
+            throw new IllegalArgumentException("Epoch day " + day + " is outside " + Hotel.FIRST_NIGHT + " to " + Hotel.LAST_NIGHT);
+        }
+        Nights nights = nightsByRoom.get(roomNumber);
+        if (nights == null) {
+            nights = new Nights();
+            nights.base = day;
+            nightsByRoom.put(roomNumber, nights);
+        } else if (day < nights.base) {
+            rebase(nights, day);
+        }
+        nights.bits.set(index(nights, day));
+    }
+
+    public void clear(int roomNumber, LocalDate date) {
+        Nights nights = nightsByRoom.get(roomNumber);
+        long day = date.toEpochDay();
+        if (nights == null || day < nights.base || day - nights.base > Integer.MAX_VALUE) {
+            return;
+        }
+        nights.bits.clear(index(nights, day));
+        if (nights.bits.isEmpty()) {
+            nightsByRoom.remove(roomNumber);
+        }
+    }
+
+    // Clears every room's nights before day and rebases each room onto its first remaining night, so the
+    // bits for archived history are freed; callers hold every room's lock
+    public void clearBefore(long day) {
+        for (Map.Entry<Integer, Nights> entry : nightsByRoom.entrySet()) {
+            Nights nights = entry.getValue();
+            if (day <= nights.base) {
+                continue;
+            }
+            int first = day - nights.base > Integer.MAX_VALUE ? -1 : nights.bits.nextSetBit((int) (day - nights.base));
+            if (first < 0) {
+                nightsByRoom.remove(entry.getKey());
+            } else {
+                nights.bits = nights.bits.get(first, nights.bits.length());
+                nights.base += first;
+            }
+        }
+    }
+
+    // Forgets every booking; callers hold every room's lock
+    public void clearAll() {
+        nightsByRoom.clear();
+    }
+
+    public boolean isBooked(int roomNumber, LocalDate date) {
+        return !isFree(roomNumber, date, date.plusDays(1));
+    }
+
+    // True when no night in [checkIn, checkOut) is booked
+    public boolean isFree(int roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        Nights nights = nightsByRoom.get(roomNumber);
+        if (nights == null) {
+            return true;
+        }
+        long from = Math.max(checkIn.toEpochDay(), nights.base) - nights.base;
+        long to = checkOut.toEpochDay() - nights.base;
+        if (to <= from) {
+            return true;
+        }
+        if (from > Integer.MAX_VALUE) {
+            return true;
+        }
+        int next = nights.bits.nextSetBit((int) from);
+        return next < 0 || next >= to;
+    }
+
+    public boolean hasBookings(int roomNumber) {
+        return nightsByRoom.containsKey(roomNumber);
+    }
+
+    // Booked nights in ascending order
+    public List<LocalDate> nights(int roomNumber) {
+        List<LocalDate> booked = new ArrayList<>();
+        Nights nights = nightsByRoom.get(roomNumber);
+        if (nights != null) {
+            for (int i = nights.bits.nextSetBit(0); i >= 0; i = nights.bits.nextSetBit(i + 1)) {
+                booked.add(LocalDate.ofEpochDay(nights.base + i));
+            }
+        }
+        return booked;
+    }
+
+    private static int index(Nights nights, long day) {
+        long offset = day - nights.base;
+        if (offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date too far from room's first booking: " + LocalDate.ofEpochDay(day));
+        }
+        return (int) offset;
+    }
+
+    private static void rebase(Nights nights, long newBase) {
+        long shift = nights.base - newBase;
+        if (shift + nights.bits.length() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date too far from room's other bookings: " + LocalDate.ofEpochDay(newBase));
+        }
+        BitSet shifted = new BitSet();
+        for (int i = nights.bits.nextSetBit(0); i >= 0; i = nights.bits.nextSetBit(i + 1)) {
+            shifted.set((int) (i + shift));
+        }
+        nights.base = newBase;
+        nights.bits = shifted;
+    }
+}
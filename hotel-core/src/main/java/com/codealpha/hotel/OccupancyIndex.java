@@ -0,0 +1,291 @@
+package com.codealpha.hotel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Booked and paid room-nights per category per night: the base every occupancy and revenue report
+// rolls up from. Built once by a fork-join scan of the archive segments and the reservation columns, then kept current by
+// ReservationStore on every add, remove and payment, so a new booking bumps one counter instead of
+// forcing a rescan. Not thread-safe; the store's monitor guards it.
+final class OccupancyIndex {
+    private static final int CATEGORIES = Room.Category.values().length;
+    // Rows per leaf task at least; below this forking costs more than it saves
+    private static final int MIN_LEAF = 16 * 1024;
+
+    // Copies of the counts for the nights [firstDay, firstDay + length)
+    static final class Slice {
+        final int firstDay;
+        final int[][] booked;
+        final int[][] paid;
+
+        Slice(int firstDay, int[][] booked, int[][] paid) {
+            this.firstDay = firstDay;
+            this.booked = booked;
+            this.paid = paid;
+        }
+
+        int length() { return booked[0].length; }
+    }
+
+    private int firstDay;
+    private int[][] booked = new int[CATEGORIES][0];
+    private int[][] paid = new int[CATEGORIES][0];
+    // The earliest and latest nights ever counted; cancellations leave the bounds where they were
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+
+    void add(Room.Category category, int day, boolean isPaid) {
+        int i = ensure(day);
+        booked[category.ordinal()][i]++;
+        if (isPaid) {
+            paid[category.ordinal()][i]++;
+        }
+    }
+
+    void remove(Room.Category category, int day, boolean wasPaid) {
+        int i = day - firstDay;
+        booked[category.ordinal()][i]--;
+        if (wasPaid) {
+            paid[category.ordinal()][i]--;
+        }
+    }
+
+    void setPaid(Room.Category category, int day, boolean isPaid) {
+        paid[category.ordinal()][day - firstDay] += isPaid ? 1 : -1;
+    }
+
+    boolean isEmpty() { return minDay > maxDay; }
+
+    int minDay() { return minDay; }
+
+    int maxDay() { return maxDay; }
+
+    Slice slice(int fromDay, int toDay) {
+        int length = Math.max(0, toDay - fromDay + 1);
+        int[][] bookedCopy = new int[CATEGORIES][length];
+        int[][] paidCopy = new int[CATEGORIES][length];
+        // Only the overlap with the stored range is copied; nights outside it were never booked
+        int from = Math.max(fromDay, firstDay);
+        int to = Math.min(toDay, firstDay + booked[0].length - 1);
+        for (int c = 0; c < CATEGORIES && from <= to; c++) {
+            System.arraycopy(booked[c], from - firstDay, bookedCopy[c], from - fromDay, to - from + 1);
+            System.arraycopy(paid[c], from - firstDay, paidCopy[c], from - fromDay, to - from + 1);
+        }
+        return new Slice(fromDay, bookedCopy, paidCopy);
+    }
+
+    // Grows the arrays by at least half so nights arriving one at a time at either end cost O(1) amortized.
+    // Only nights Hotel can book, so the arrays never span more than that window.
+    private int ensure(int day) {
+        if (!Hotel.dayFits(day)) {
+            throw new IllegalArgumentException("Epoch day " + day + " is outside " + Hotel.FIRST_NIGHT + " to " + Hotel.LAST_NIGHT);
+        }
+        minDay = Math.min(minDay, day);
+        maxDay = Math.max(maxDay, day);
+        int length = booked[0].length;
+        if (length == 0) {
+            firstDay = day - 32;
+            resize(firstDay, 64);
+        } else if (day < firstDay) {
+            int newFirst = Math.min(day, firstDay - (length >> 1));
+            resize(newFirst, length + (firstDay - newFirst));
+        } else if (day >= firstDay + length) {
+            resize(firstDay, Math.max(day - firstDay + 1, length + (length >> 1)));
+        }
+        return day - firstDay;
+    }
+
+    private void resize(int newFirst, int newLength) {
+        for (int c = 0; c < CATEGORIES; c++) {
+            booked[c] = moved(booked[c], newFirst, newLength);
+            paid[c] = moved(paid[c], newFirst, newLength);
+        }
+        firstDay = newFirst;
+    }
+
+    private int[] moved(int[] counts, int newFirst, int newLength) {
+        int[] grown = new int[newLength];
+        System.arraycopy(counts, 0, grown, firstDay - newFirst, counts.length);
+        return grown;
+    }
+
+    // Counts rows [0, size) of the columns on the pool and adds the archived counts, which may be empty.
+    // categoryByRoom maps a room number to its category.
+    static OccupancyIndex build(int size, int[] rooms, int[] days, BitSet paid, Room.Category[] categoryByRoom,
+                                OccupancyIndex archived, ForkJoinPool pool) {
+        int leaf = Math.max(MIN_LEAF, size / (pool.getParallelism() * 4) + 1);
+        Partial counts = pool.invoke(new CountTask(rooms, days, paid, categoryByRoom, 0, size, leaf));
+        if (!archived.isEmpty()) {
+            counts = counts.merge(new Partial(archived.firstDay, archived.booked, archived.paid));
+        }
+        return of(counts);
+    }
+
+    // Counts the archive segments on the pool, decompressing one segment per task
+    static OccupancyIndex count(List<ArchiveSegment> segments, Room.Category[] categoryByRoom, ForkJoinPool pool) {
+        return of(pool.invoke(new SegmentTask(segments, categoryByRoom, 0, segments.size())));
+    }
+
+    private static OccupancyIndex of(Partial counts) {
+        OccupancyIndex index = new OccupancyIndex();
+        if (counts.booked != null) {
+            index.firstDay = counts.firstDay;
+            index.booked = counts.booked;
+            index.paid = counts.paid;
+            index.minDay = counts.firstDay;
+            index.maxDay = counts.firstDay + counts.booked[0].length - 1;
+        }
+        return index;
+    }
+
+    // Counts over the nights one task saw; booked is null when it saw none
+    private static final class Partial {
+        final int firstDay;
+        final int[][] booked;
+        final int[][] paid;
+
+        Partial(int firstDay, int[][] booked, int[][] paid) {
+            this.firstDay = firstDay;
+            this.booked = booked;
+            this.paid = paid;
+        }
+
+        Partial merge(Partial other) {
+            if (other.booked == null) return this;
+            if (booked == null) return other;
+            int first = Math.min(firstDay, other.firstDay);
+            int end = Math.max(firstDay + booked[0].length, other.firstDay + other.booked[0].length);
+            Partial merged = new Partial(first, new int[CATEGORIES][end - first], new int[CATEGORIES][end - first]);
+            merged.addAll(this);
+            merged.addAll(other);
+            return merged;
+        }
+
+        private void addAll(Partial from) {
+            int offset = from.firstDay - firstDay;
+            for (int c = 0; c < CATEGORIES; c++) {
+                for (int i = 0; i < from.booked[c].length; i++) {
+                    booked[c][offset + i] += from.booked[c][i];
+                    paid[c][offset + i] += from.paid[c][i];
+                }
+            }
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+        private final int[] rooms;
+        private final int[] days;
+        private final BitSet paid;
+        private final Room.Category[] categoryByRoom;
+        private final int from;
+        private final int to;
+        private final int leaf;
+
+        CountTask(int[] rooms, int[] days, BitSet paid, Room.Category[] categoryByRoom, int from, int to, int leaf) {
+            this.rooms = rooms;
+            this.days = days;
+            this.paid = paid;
+            this.categoryByRoom = categoryByRoom;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > leaf) {
+                int mid = (from + to) >>> 1;
+                CountTask left = new CountTask(rooms, days, paid, categoryByRoom, from, mid, leaf);
+                left.fork();
+                Partial right = new CountTask(rooms, days, paid, categoryByRoom, mid, to, leaf).compute();
+                return left.join().merge(right);
+            }
+            if (from == to) {
+                return new Partial(0, null, null);
+            }
+            // Two passes over the slice: bounds first, so the counts fit in exactly-sized arrays
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int row = from; row < to; row++) {
+                min = Math.min(min, days[row]);
+                max = Math.max(max, days[row]);
+            }
+            int[][] booked = new int[CATEGORIES][max - min + 1];
+            int[][] paidCounts = new int[CATEGORIES][max - min + 1];
+            for (int row = from; row < to; row++) {
+                int category = categoryByRoom[rooms[row]].ordinal();
+                booked[category][days[row] - min]++;
+                if (paid.get(row)) {
+                    paidCounts[category][days[row] - min]++;
+                }
+            }
+            return new Partial(min, booked, paidCounts);
+        }
+    }
+
+    private static final class SegmentTask extends RecursiveTask<Partial> {
+        private static final long serialVersionUID = 1L;
+        private final List<ArchiveSegment> segments;
+        private final Room.Category[] categoryByRoom;
+        private final int from;
+        private final int to;
+
+        SegmentTask(List<ArchiveSegment> segments, Room.Category[] categoryByRoom, int from, int to) {
+            this.segments = segments;
+            this.categoryByRoom = categoryByRoom;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                SegmentTask left = new SegmentTask(segments, categoryByRoom, from, mid);
+                left.fork();
+                Partial right = new SegmentTask(segments, categoryByRoom, mid, to).compute();
+                return left.join().merge(right);
+            }
+            if (from == to || segments.get(from).count == 0) {
+                return new Partial(0, null, null);
+            }
+            // The segment's header bounds its nights, so one pass fills arrays that are then trimmed
+            ArchiveSegment segment = segments.get(from);
+            int length = segment.toDay - segment.fromDay;
+            int[][] booked = new int[CATEGORIES][length];
+            int[][] paidCounts = new int[CATEGORIES][length];
+            int[] bounds = { Integer.MAX_VALUE, Integer.MIN_VALUE };
+            try {
+                // Nights outside the bookable window, from before Hotel checked them, are left uncounted
+                segment.forEach(Math.max(segment.fromDay, Hotel.FIRST_DAY), Math.min(segment.toDay - 1, Hotel.LAST_DAY),
+                        (guest, room, day, paid) -> {
+                    int category = categoryByRoom[room].ordinal();
+                    booked[category][day - segment.fromDay]++;
+                    if (paid) {
+                        paidCounts[category][day - segment.fromDay]++;
+                    }
+                    bounds[0] = Math.min(bounds[0], day);
+                    bounds[1] = Math.max(bounds[1], day);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error reading archive " + segment.file, e);
+            }
+            if (bounds[0] > bounds[1]) {
+                return new Partial(0, null, null);
+            }
+            int first = bounds[0] - segment.fromDay;
+            int end = bounds[1] - segment.fromDay + 1;
+            for (int c = 0; c < CATEGORIES; c++) {
+                booked[c] = Arrays.copyOfRange(booked[c], first, end);
+                paidCounts[c] = Arrays.copyOfRange(paidCounts[c], first, end);
+            }
+            return new Partial(bounds[0], booked, paidCounts);
+        }
+    }
+}
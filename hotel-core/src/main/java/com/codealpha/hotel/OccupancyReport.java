@@ -0,0 +1,121 @@
+package com.codealpha.hotel;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Occupancy and revenue per room category, bucketed by night, ISO week or calendar month. Capacity is
+// the category's current room count times the nights of the period that fall inside the report's
+// range; revenue is booked nights times the category's nightly rate.
+public final class OccupancyReport {
+    public enum Granularity { DAY, WEEK, MONTH }
+
+    public static final class Row {
+        private final Room.Category category;
+        private final LocalDate periodStart;
+        private final long roomNights;
+        private final long bookedNights;
+        private final long paidNights;
+
+        Row(Room.Category category, LocalDate periodStart, long roomNights, long bookedNights, long paidNights) {
+            this.category = category;
+            this.periodStart = periodStart;
+            this.roomNights = roomNights;
+            this.bookedNights = bookedNights;
+            this.paidNights = paidNights;
+        }
+
+        public Room.Category getCategory() { return category; }
+        public LocalDate getPeriodStart() { return periodStart; }
+        public long getRoomNights() { return roomNights; }
+        public long getBookedNights() { return bookedNights; }
+        public long getPaidNights() { return paidNights; }
+
+        // Booked share of capacity, 0 to 1
+        public double getOccupancy() {
+            return roomNights == 0 ? 0 : (double) bookedNights / roomNights;
+        }
+
+        public BigDecimal getRevenue() {
+            return category.getNightlyRate().multiply(BigDecimal.valueOf(bookedNights));
+        }
+
+        public BigDecimal getPaidRevenue() {
+            return category.getNightlyRate().multiply(BigDecimal.valueOf(paidNights));
+        }
+    }
+
+    private final Granularity granularity;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<Row> rows;
+    private final List<Row> totals;
+
+    // Rolls the daily counts up; rows are ordered by period, then category
+    OccupancyReport(Granularity granularity, OccupancyIndex.Slice counts, Map<Room.Category, Integer> roomCounts) {
+        this.granularity = granularity;
+        this.from = LocalDate.ofEpochDay(counts.firstDay);
+        this.to = LocalDate.ofEpochDay(counts.firstDay + counts.length() - 1);
+        Room.Category[] categories = Room.Category.values();
+        List<Row> rows = new ArrayList<>();
+        List<Row> totals = new ArrayList<>();
+        long[] bookedTotal = new long[categories.length];
+        long[] paidTotal = new long[categories.length];
+        int i = 0;
+        while (i < counts.length()) {
+            LocalDate start = LocalDate.ofEpochDay(counts.firstDay + i);
+            int end = Math.min(counts.length(), i + (int) (periodEnd(start).toEpochDay() - start.toEpochDay()) + 1);
+            for (Room.Category category : categories) {
+                int c = category.ordinal();
+                long booked = 0;
+                long paid = 0;
+                for (int day = i; day < end; day++) {
+                    booked += counts.booked[c][day];
+                    paid += counts.paid[c][day];
+                }
+                bookedTotal[c] += booked;
+                paidTotal[c] += paid;
+                rows.add(new Row(category, periodStart(start), (long) roomCounts.get(category) * (end - i), booked, paid));
+            }
+            i = end;
+        }
+        for (Room.Category category : categories) {
+            int c = category.ordinal();
+            totals.add(new Row(category, from, (long) roomCounts.get(category) * counts.length(), bookedTotal[c], paidTotal[c]));
+        }
+        this.rows = Collections.unmodifiableList(rows);
+        this.totals = Collections.unmodifiableList(totals);
+    }
+
+    private LocalDate periodStart(LocalDate night) {
+        switch (granularity) {
+            case WEEK: return night.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH: return night.withDayOfMonth(1);
+            default: return night;
+        }
+    }
+
+    private LocalDate periodEnd(LocalDate night) {
+        switch (granularity) {
+            case WEEK: return night.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH: return night.with(TemporalAdjusters.lastDayOfMonth());
+            default: return night;
+        }
+    }
+
+    public Granularity getGranularity() { return granularity; }
+
+    // First and last night covered; to is before from when the report is empty
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+
+    public List<Row> getRows() { return rows; }
+
+    // One row per category for the whole range
+    public List<Row> getTotals() { return totals; }
+}
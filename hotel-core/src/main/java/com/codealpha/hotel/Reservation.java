@@ -0,0 +1,45 @@
+package com.codealpha.hotel;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// A copy of one booking. Hotel keeps reservations in columns and builds these on demand, so two reads
+// of the same booking give equal but distinct objects, and setPaid on a copy does not change the hotel.
+public class Reservation implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private String guestName;
+    private Room room;
+    private LocalDate date;
+    private volatile boolean paid;
+
+    public Reservation(String guestName, Room room, LocalDate date) {
+        this.guestName = guestName;
+        this.room = room;
+        this.date = date;
+        this.paid = false;
+    }
+
+    public String getGuestName() { return guestName; }
+    public Room getRoom() { return room; }
+    public LocalDate getDate() { return date; }
+    public boolean isPaid() { return paid; }
+    public void setPaid(boolean paid) { this.paid = paid; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Reservation)) return false;
+        Reservation other = (Reservation) o;
+        return room.getRoomNumber() == other.room.getRoomNumber() && date.equals(other.date)
+            && guestName.equals(other.guestName) && paid == other.paid;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * guestName.hashCode() + room.getRoomNumber()) + date.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return guestName + " - " + room + " on " + date + " - " + (paid ? "Paid" : "Unpaid");
+    }
+}
@@ -0,0 +1,205 @@
+package com.codealpha.hotel;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// The cold tier: reservations for past nights, moved out of memory into immutable segment files under
+// dataDir/archive, one per calendar month. Opening reads only the segment headers, so startup does not
+// grow with history. Every paid stay for a night before the horizon lives here and nowhere else; unpaid
+// ones stay in memory, where they can still be paid or cancelled. Appends must be serialized by the
+// caller; reads may run alongside them and see the segments as of some moment.
+final class ReservationArchive {
+    static final String DIR = "archive";
+
+    private final File dir;
+    private volatile List<ArchiveSegment> segments;
+    private volatile int horizon = Integer.MIN_VALUE;
+
+    ReservationArchive(File dataDir) throws IOException {
+        dir = new File(dataDir, DIR);
+        segments = Collections.emptyList();
+        refresh();
+    }
+
+    // Picks up segments another process sharing the directory has added and returns true if the horizon
+    // moved. Deletes leftover temporary files, so callers must hold whatever serializes appends.
+    boolean refresh() throws IOException {
+        Map<String, ArchiveSegment> known = new HashMap<>();
+        for (ArchiveSegment segment : segments) {
+            known.put(segment.file.getName(), segment);
+        }
+        List<ArchiveSegment> found = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(ArchiveSegment.SUFFIX + ".tmp")) {
+                    // A rollover that died before its rename; the rows are still in the snapshot or journal
+                    if (!file.delete()) {
+                        System.err.println("Error deleting " + file);
+                    }
+                } else if (file.getName().endsWith(ArchiveSegment.SUFFIX)) {
+                    ArchiveSegment segment = known.get(file.getName());
+                    found.add(segment != null ? segment : ArchiveSegment.open(file));
+                }
+            }
+        }
+        if (found.size() == known.size()) {
+            return false;
+        }
+        Collections.sort(found, Comparator.comparingInt(segment -> segment.fromDay));
+        int previous = horizon;
+        for (ArchiveSegment segment : found) {
+            horizon = Math.max(horizon, segment.toDay);
+        }
+        segments = Collections.unmodifiableList(found);
+        return horizon != previous;
+    }
+
+    // The first night not archived; Integer.MIN_VALUE while the archive is empty
+    int horizon() {
+        return horizon;
+    }
+
+    // Ordered by night
+    List<ArchiveSegment> segments() {
+        return segments;
+    }
+
+    // The segments that may hold nights in [fromDay, toDay]
+    List<ArchiveSegment> segments(int fromDay, int toDay) {
+        List<ArchiveSegment> overlapping = new ArrayList<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.toDay > fromDay && segment.fromDay <= toDay) {
+                overlapping.add(segment);
+            }
+        }
+        return overlapping;
+    }
+
+    int reservationCount() {
+        int count = 0;
+        for (ArchiveSegment segment : segments) {
+            count += segment.count;
+        }
+        return count;
+    }
+
+    long bytes() {
+        long bytes = 0;
+        for (ArchiveSegment segment : segments) {
+            bytes += segment.file.length();
+        }
+        return bytes;
+    }
+
+    // Writes the rows, all for nights in [horizon, cutoff), as one segment per calendar month and moves the
+    // horizon to cutoff. Each segment is durable before the horizon passes it, so if a write fails the
+    // horizon stops after the last month written. Returns the bytes written.
+    long append(ReservationStore.Columns rows, int cutoff) throws IOException {
+        if (rows.size == 0) {
+            return 0;
+        }
+        if (!dir.isDirectory()) {
+            if (!dir.mkdirs()) {
+                throw new IOException("Cannot create " + dir);
+            }
+            BinarySnapshot.syncDirectory(dir.getParentFile());
+        }
+        int[] order = byNightThenRoom(rows);
+        long bytes = 0;
+        int start = 0;
+        while (start < rows.size) {
+            LocalDate month = LocalDate.ofEpochDay(rows.days[order[start]]).withDayOfMonth(1);
+            int monthEnd = (int) month.plusMonths(1).toEpochDay();
+            int end = start;
+            while (end < rows.size && rows.days[order[end]] < monthEnd) {
+                end++;
+            }
+            // The last segment reaches the cutoff, so a reopened archive has the same horizon
+            int fromDay = Math.max((int) month.toEpochDay(), horizon);
+            int toDay = end == rows.size ? cutoff : Math.min(monthEnd, cutoff);
+            ArchiveSegment segment = ArchiveSegment.write(dir, fromDay, toDay, rows, order, start, end);
+            bytes += segment.file.length();
+            List<ArchiveSegment> grown = new ArrayList<>(segments);
+            grown.add(segment);
+            segments = Collections.unmodifiableList(grown);
+            horizon = toDay;
+            start = end;
+        }
+        return bytes;
+    }
+
+    // The archived rows for nights in [fromDay, toDay), read into memory: for the few months a process
+    // must find among its own rows after another one, or a rollover that died, archived them
+    ReservationStore.Columns rows(int fromDay, int toDay) throws IOException {
+        List<ArchiveSegment> overlapping = segments(fromDay, toDay - 1);
+        int capacity = 0;
+        for (ArchiveSegment segment : overlapping) {
+            capacity += segment.count;
+        }
+        int[] rooms = new int[capacity];
+        int[] days = new int[capacity];
+        int[] guests = new int[capacity];
+        BitSet paid = new BitSet(capacity);
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> ids = new HashMap<>();
+        int[] size = new int[1];
+        for (ArchiveSegment segment : overlapping) {
+            segment.forEach(fromDay, toDay - 1, (guestName, roomNumber, day, isPaid) -> {
+                int i = size[0]++;
+                Integer id = ids.get(guestName);
+                if (id == null) {
+                    id = names.size();
+                    ids.put(guestName, id);
+                    names.add(guestName);
+                }
+                rooms[i] = roomNumber;
+                days[i] = day;
+                guests[i] = id;
+                paid.set(i, isPaid);
+            });
+        }
+        int count = size[0];
+        return new ReservationStore.Columns(count, Arrays.copyOf(rooms, count), Arrays.copyOf(days, count),
+            Arrays.copyOf(guests, count), paid, names.toArray(new String[0]));
+    }
+
+    // Row indexes ordered by night then room: a counting sort on the night, then a sort by room per night
+    private static int[] byNightThenRoom(ReservationStore.Columns rows) {
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < rows.size; i++) {
+            minDay = Math.min(minDay, rows.days[i]);
+            maxDay = Math.max(maxDay, rows.days[i]);
+        }
+        int[] starts = new int[maxDay - minDay + 2];
+        for (int i = 0; i < rows.size; i++) {
+            starts[rows.days[i] - minDay + 1]++;
+        }
+        for (int d = 1; d < starts.length; d++) {
+            starts[d] += starts[d - 1];
+        }
+        long[] keys = new long[rows.size];
+        int[] next = Arrays.copyOf(starts, starts.length - 1);
+        for (int i = 0; i < rows.size; i++) {
+            keys[next[rows.days[i] - minDay]++] = ((long) rows.rooms[i] << 32) | i;
+        }
+        for (int d = 0; d + 1 < starts.length; d++) {
+            Arrays.sort(keys, starts[d], starts[d + 1]);
+        }
+        int[] order = new int[rows.size];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
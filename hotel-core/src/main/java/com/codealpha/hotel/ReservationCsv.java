@@ -0,0 +1,242 @@
+package com.codealpha.hotel;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+// Bulk import and export as CSV rows of action,guest,room,date,paid. BEST_EFFORT reads and applies one
+// chunk of rows at a time through Hotel.applyBatch, so files larger than the heap stream through.
+// ALL_OR_NOTHING applies the whole file as one batch, so the file must fit in the heap and its rows in
+// one journal record (about two million rows); a larger file is rejected as a whole.
+public final class ReservationCsv {
+    public static final String HEADER = "action,guest,room,date,paid";
+    public static final int DEFAULT_CHUNK = 10000;
+    // A quoted field still open after this many characters is taken to be unterminated
+    static final int MAX_RECORD_CHARS = 1 << 20;
+
+    public static final class ImportResult {
+        public final long rows;
+        public final long applied;
+        public final long rejected;
+
+        ImportResult(long rows, long applied) {
+            this.rows = rows;
+            this.applied = applied;
+            this.rejected = rows - applied;
+        }
+    }
+
+    private ReservationCsv() {
+    }
+
+    // Rejected rows go to rejects (may be null) as line,reason. chunkSize applies to BEST_EFFORT only.
+    public static ImportResult importCsv(Hotel hotel, Reader in, Hotel.BatchMode mode, int chunkSize,
+                                         Writer rejects) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in, 1 << 16);
+        boolean wholeFile = mode == Hotel.BatchMode.ALL_OR_NOTHING;
+        List<BatchOperation> chunk = new ArrayList<>(wholeFile ? 1024 : chunkSize);
+        long[] chunkLines = new long[wholeFile ? 1024 : chunkSize];
+        List<String> fields = new ArrayList<>();
+        // Lines read ahead for an unterminated quoted field, to be read again as rows of their own
+        Deque<String> pushedBack = new ArrayDeque<>();
+        long lineNumber = 0;
+        long rows = 0;
+        long applied = 0;
+        boolean anyRejected = false;
+        String line;
+        while ((line = pushedBack.isEmpty() ? reader.readLine() : pushedBack.pollFirst()) != null) {
+            long start = ++lineNumber;
+            // A quoted field may hold a line break, so the record continues on the next line
+            if (oddQuotes(line)) {
+                StringBuilder record = new StringBuilder(line);
+                List<String> continued = new ArrayList<>();
+                boolean open = true;
+                while (open && record.length() <= MAX_RECORD_CHARS) {
+                    String next = pushedBack.isEmpty() ? reader.readLine() : pushedBack.pollFirst();
+                    if (next == null) {
+                        break;
+                    }
+                    continued.add(next);
+                    record.append('\n').append(next);
+                    open ^= oddQuotes(next);
+                }
+                if (open) {
+                    for (int i = continued.size() - 1; i >= 0; i--) {
+                        pushedBack.addFirst(continued.get(i));
+                    }
+                    rows++;
+                    anyRejected = true;
+                    reject(rejects, start, "Unterminated quoted field");
+                    continue;
+                }
+                line = record.toString();
+                lineNumber += continued.size();
+            }
+            split(line, fields);
+            if (line.trim().isEmpty() || (start == 1 && fields.get(0).trim().equalsIgnoreCase("action"))) {
+                continue;
+            }
+            rows++;
+            BatchOperation op;
+            try {
+                op = toOperation(fields);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                anyRejected = true;
+                reject(rejects, start, e.getMessage());
+                continue;
+            }
+            if (chunk.size() == chunkLines.length) {
+                chunkLines = Arrays.copyOf(chunkLines, chunkLines.length * 2);
+            }
+            chunkLines[chunk.size()] = start;
+            chunk.add(op);
+            if (!wholeFile && chunk.size() == chunkSize) {
+                applied += applyChunk(hotel, chunk, chunkLines, mode, rejects);
+            }
+        }
+        if (wholeFile && anyRejected) {
+            for (int i = 0; i < chunk.size(); i++) {
+                reject(rejects, chunkLines[i], "Rolled back: another row in the file failed");
+            }
+            return new ImportResult(rows, 0);
+        }
+        applied += applyChunk(hotel, chunk, chunkLines, mode, rejects);
+        return new ImportResult(rows, applied);
+    }
+
+    // Whether text leaves a quoted field open: every quote opens or closes one, or pairs with the next
+    // as an escaped quote, so the parity of the count decides
+    private static boolean oddQuotes(String text) {
+        boolean odd = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                odd = !odd;
+            }
+        }
+        return odd;
+    }
+
+    private static int applyChunk(Hotel hotel, List<BatchOperation> chunk, long[] lines, Hotel.BatchMode mode,
+                                  Writer rejects) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        BatchResult result = hotel.applyBatch(chunk, mode);
+        for (int i = 0; i < result.size(); i++) {
+            if (!result.succeeded(i)) {
+                reject(rejects, lines[i], result.error(i));
+            }
+        }
+        chunk.clear();
+        return result.successCount();
+    }
+
+    private static void reject(Writer rejects, long line, String reason) throws IOException {
+        if (rejects != null) {
+            rejects.write(line + "," + quote(String.valueOf(reason)) + "\n");
+        }
+    }
+
+    private static BatchOperation toOperation(List<String> fields) {
+        if (fields.size() < 3) {
+            throw new IllegalArgumentException("Expected " + HEADER);
+        }
+        BatchOperation.Type type;
+        try {
+            type = BatchOperation.Type.valueOf(fields.get(0).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown action: " + fields.get(0));
+        }
+        String guestName = fields.get(1).trim();
+        int roomNumber;
+        try {
+            roomNumber = Integer.parseInt(fields.get(2).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad room number: " + fields.get(2));
+        }
+        switch (type) {
+            case BOOK:
+                if (fields.size() < 4) {
+                    throw new IllegalArgumentException("Missing date");
+                }
+                boolean paid = fields.size() > 4 && Boolean.parseBoolean(fields.get(4).trim());
+                return BatchOperation.book(guestName, roomNumber, LocalDate.parse(fields.get(3).trim()), paid);
+            case CANCEL:
+                return BatchOperation.cancel(guestName, roomNumber);
+            default:
+                return BatchOperation.pay(guestName, roomNumber);
+        }
+    }
+
+    // Splits one record into fields; returns false while a quoted field is still open at the end of text
+    static boolean split(String text, List<String> fields) {
+        fields.clear();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return !quoted;
+    }
+
+    // Writes every reservation, archived ones included, as a BOOK row, so the file imports back into an
+    // empty hotel
+    public static long exportCsv(Hotel hotel, Writer out) throws IOException {
+        return exportCsv(hotel, out, null, null);
+    }
+
+    // Only the nights in [from, to]; a null bound is open
+    public static long exportCsv(Hotel hotel, Writer out, LocalDate from, LocalDate to) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        long[] rows = new long[1];
+        hotel.forEachReservation(from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+            to == null ? Integer.MAX_VALUE : (int) to.toEpochDay(), (guestName, roomNumber, day, paid) -> {
+                out.write("BOOK,");
+                out.write(quote(guestName));
+                out.write(',');
+                out.write(Integer.toString(roomNumber));
+                out.write(',');
+                out.write(LocalDate.ofEpochDay(day).toString());
+                out.write(paid ? ",true\n" : ",false\n");
+                rows[0]++;
+            });
+        return rows[0];
+    }
+
+    static String quote(String s) {
+        boolean needsQuotes = false;
+        for (int i = 0; i < s.length() && !needsQuotes; i++) {
+            char c = s.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needsQuotes ? '"' + s.replace("\"", "\"\"") + '"' : s;
+    }
+}
@@ -0,0 +1,18 @@
+package com.codealpha.hotel;
+
+// Row-level change notifications for Hotel's reservation list, in the index space of
+// Hotel.getReservation(int). Called on the mutating thread, in mutation order, while the
+// list is locked: implementations must be quick and must not call back into Hotel.
+public interface ReservationListener {
+    void reservationAdded(int index);
+
+    // The reservation at index is gone. If index != lastIndex, the reservation that was at
+    // lastIndex has moved into index; either way the list is now one shorter.
+    void reservationRemoved(int index, int lastIndex);
+
+    void reservationUpdated(int index);
+
+    // Many rows went at once, as when past stays move to the archive: every index may have changed and
+    // the list now holds size reservations
+    void reservationsReset(int size);
+}
@@ -0,0 +1,721 @@
+package com.codealpha.hotel;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+
+// Reservations as primitive columns (room number, epoch day, guest id, paid bit) with swap-remove.
+// A room holds at most one booking per night, so (room, night) identifies a row: an open-addressing
+// table of row numbers indexes that key, and each guest's rows are linked through two more columns.
+// A second table keyed on (guest, room) heads a chain through two more columns of that guest's rows
+// in that room, so cancel and pay look at those rows only, not at every row the guest has.
+// Reservation objects exist only as views built when asked for, about 50 bytes per row otherwise.
+// Each call is atomic; the monitor is held for O(1) work, or for one walk of a guest's rows.
+class ReservationStore {
+    // Exact-size copies of the columns, as written to and read from a snapshot
+    static final class Columns {
+        final int size;
+        final int[] rooms;
+        final int[] days;
+        final int[] guests;
+        final BitSet paid;
+        final String[] guestNames;
+
+        Columns(int size, int[] rooms, int[] days, int[] guests, BitSet paid, String[] guestNames) {
+            this.size = size;
+            this.rooms = rooms;
+            this.days = days;
+            this.guests = guests;
+            this.paid = paid;
+            this.guestNames = guestNames;
+        }
+
+        Reservation reservation(int row, IntFunction<Room> roomLookup) {
+            Reservation res = new Reservation(guestNames[guests[row]], roomLookup.apply(rooms[row]), LocalDate.ofEpochDay(days[row]));
+            res.setPaid(paid.get(row));
+            return res;
+        }
+    }
+
+    private static final int NO_ROW = -1;
+
+    private final IntFunction<Room> roomLookup;
+    private final GuestDictionary guestNames = new GuestDictionary();
+    private int size;
+    private int[] roomColumn = new int[16];
+    private int[] dayColumn = new int[16];
+    private int[] guestColumn = new int[16];
+    private final BitSet paidColumn = new BitSet();
+    private int[] nextOfGuest = new int[16];
+    private int[] prevOfGuest = new int[16];
+    private int[] firstOfGuest = new int[0];
+    // Open addressing with linear probing on (room, day); slots hold row + 1, 0 when empty
+    private int[] rowTable = new int[32];
+    private int[] nextOfPair = new int[16];
+    private int[] prevOfPair = new int[16];
+    // As rowTable, on (guest, room); slots hold the first row of the pair's chain + 1
+    private int[] pairTable = new int[32];
+    private int pairs;
+    private final List<Reservation> view = new AbstractList<Reservation>() {
+        @Override
+        public Reservation get(int index) {
+            Reservation res = ReservationStore.this.get(index);
+            if (res == null) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return res;
+        }
+
+        @Override
+        public int size() {
+            return ReservationStore.this.size();
+        }
+    };
+    private final List<ReservationListener> listeners = new CopyOnWriteArrayList<>();
+    // Null until the first report asks for it; from then on updated with every change
+    private OccupancyIndex occupancy;
+    // Null until the first guest-name search, like occupancy; built outside the monitor, then published
+    private volatile GuestNameIndex guestIndex;
+    // One build at a time; taken before the monitor
+    private final Object guestIndexBuild = new Object();
+
+    ReservationStore(IntFunction<Room> roomLookup) {
+        this.roomLookup = roomLookup;
+    }
+
+    // The caller guarantees the room is not already booked that night
+    public synchronized void add(String guestName, int roomNumber, LocalDate date, boolean paid) {
+        int row = append(guestNames.intern(guestName), roomNumber, (int) date.toEpochDay(), paid);
+        for (ReservationListener listener : listeners) {
+            listener.reservationAdded(row);
+        }
+    }
+
+    // Bulk load of a snapshot into an empty store, without listener events
+    public synchronized void load(Columns columns) {
+        int[] ids = new int[columns.guestNames.length];
+        guestNames.ensureCapacity(guestNames.size() + ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = guestNames.intern(columns.guestNames[i]);
+        }
+        ensureRowCapacity(size + columns.size);
+        int length = rowTable.length;
+        while (length < 2 * (size + columns.size)) {
+            length <<= 1;
+        }
+        rehash(length);
+        if (pairTable.length < length) {
+            rehashPairs(length);
+        }
+        for (int i = 0; i < columns.size; i++) {
+            append(ids[columns.guests[i]], columns.rooms[i], columns.days[i], columns.paid.get(i));
+        }
+    }
+
+    // Replaces every row with the snapshot's, as when another process has compacted changes this one never
+    // saw; the occupancy index is rebuilt by the next report and listeners get one reservationsReset
+    public synchronized void reload(Columns columns) {
+        paidColumn.clear(0, size);
+        size = 0;
+        Arrays.fill(firstOfGuest, NO_ROW);
+        Arrays.fill(pairTable, 0);
+        pairs = 0;
+        occupancy = null;
+        guestIndex = null;
+        load(columns);
+        for (ReservationListener listener : listeners) {
+            listener.reservationsReset(size);
+        }
+    }
+
+    private int append(int guest, int roomNumber, int day, boolean paid) {
+        int row = size;
+        ensureRowCapacity(row + 1);
+        if (guest >= firstOfGuest.length) {
+            int from = firstOfGuest.length;
+            firstOfGuest = Arrays.copyOf(firstOfGuest, Math.max(16, Math.max(guest + 1, from + (from >> 1))));
+            Arrays.fill(firstOfGuest, from, firstOfGuest.length, NO_ROW);
+        }
+        roomColumn[row] = roomNumber;
+        dayColumn[row] = day;
+        guestColumn[row] = guest;
+        paidColumn.set(row, paid);
+        if (occupancy != null) {
+            occupancy.add(roomLookup.apply(roomNumber).getCategory(), day, paid);
+        }
+        prevOfGuest[row] = NO_ROW;
+        nextOfGuest[row] = firstOfGuest[guest];
+        if (nextOfGuest[row] != NO_ROW) {
+            prevOfGuest[nextOfGuest[row]] = row;
+        } else if (guestIndex != null) {
+            // The guest's first reservation in memory
+            if (guestIndex.contains(guest)) {
+                guestIndex.revived();
+            } else {
+                guestIndex.add(guest, guestNames.name(guest));
+            }
+        }
+        firstOfGuest[guest] = row;
+        linkPair(row);
+        size++;
+        if (size * 2 > rowTable.length) {
+            rehash(rowTable.length * 2);
+        } else {
+            rowTable[freeSlot(roomNumber, day)] = row + 1;
+        }
+        return row;
+    }
+
+    public synchronized boolean remove(int roomNumber, LocalDate date) {
+        int row = rowOf(roomNumber, (int) date.toEpochDay());
+        if (row == NO_ROW) {
+            return false;
+        }
+        if (occupancy != null) {
+            occupancy.remove(roomLookup.apply(roomNumber).getCategory(), dayColumn[row], paidColumn.get(row));
+        }
+        deleteSlot(slotOfRow(row));
+        unlink(row);
+        unlinkPair(row);
+        int lastIndex = size - 1;
+        if (row != lastIndex) {
+            rowTable[slotOfRow(lastIndex)] = row + 1;
+            moveRow(lastIndex, row);
+        }
+        paidColumn.clear(lastIndex);
+        size = lastIndex;
+        for (ReservationListener listener : listeners) {
+            listener.reservationRemoved(row, lastIndex);
+        }
+        return true;
+    }
+
+    // Drops every row for a night before day and returns how many went
+    public synchronized int removeBefore(int day) {
+        BitSet drop = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (dayColumn[row] < day) {
+                drop.set(row);
+            }
+        }
+        return removeRows(drop);
+    }
+
+    // Drops the rows that match one of rows (same room, night and guest) for a night in [fromDay, toDay),
+    // as when the archive has taken them, and returns how many went
+    synchronized int removeArchived(Columns rows, int fromDay, int toDay) {
+        BitSet drop = new BitSet(size);
+        for (int i = 0; i < rows.size; i++) {
+            int day = rows.days[i];
+            if (day >= fromDay && day < toDay) {
+                int row = rowOf(rows.rooms[i], day);
+                if (row != NO_ROW && guestNames.name(guestColumn[row]).equals(rows.guestNames[rows.guests[i]])) {
+                    drop.set(row);
+                }
+            }
+        }
+        return removeRows(drop);
+    }
+
+    // The occupancy index keeps counting removed rows: archived nights still belong in reports. Rows keep
+    // their relative order; listeners get one reservationsReset instead of an event per row.
+    private int removeRows(BitSet drop) {
+        if (drop.isEmpty()) {
+            return 0;
+        }
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            if (!drop.get(row)) {
+                roomColumn[kept] = roomColumn[row];
+                dayColumn[kept] = dayColumn[row];
+                guestColumn[kept] = guestColumn[row];
+                paidColumn.set(kept, paidColumn.get(row));
+                kept++;
+            }
+        }
+        int removed = size - kept;
+        paidColumn.clear(kept, size);
+        size = kept;
+        // Most of the guests it held may be gone with the archived rows; the next search rebuilds it
+        guestIndex = null;
+        // Give back the memory the archived rows held
+        if (roomColumn.length > 2 * Math.max(16, size)) {
+            int length = Math.max(16, size + (size >> 1));
+            roomColumn = Arrays.copyOf(roomColumn, length);
+            dayColumn = Arrays.copyOf(dayColumn, length);
+            guestColumn = Arrays.copyOf(guestColumn, length);
+            nextOfGuest = new int[length];
+            prevOfGuest = new int[length];
+            nextOfPair = new int[length];
+            prevOfPair = new int[length];
+        }
+        Arrays.fill(firstOfGuest, NO_ROW);
+        for (int row = size - 1; row >= 0; row--) {
+            int guest = guestColumn[row];
+            prevOfGuest[row] = NO_ROW;
+            nextOfGuest[row] = firstOfGuest[guest];
+            if (nextOfGuest[row] != NO_ROW) {
+                prevOfGuest[nextOfGuest[row]] = row;
+            }
+            firstOfGuest[guest] = row;
+        }
+        int length = 32;
+        while (length < 2 * size) {
+            length <<= 1;
+        }
+        rehash(length);
+        // Sized for a pair per row, so linking never rehashes over rows not linked yet
+        pairTable = new int[length];
+        pairs = 0;
+        for (int row = size - 1; row >= 0; row--) {
+            linkPair(row);
+        }
+        for (ReservationListener listener : listeners) {
+            listener.reservationsReset(size);
+        }
+        return removed;
+    }
+
+    public synchronized boolean setPaid(int roomNumber, LocalDate date, boolean paid) {
+        int row = rowOf(roomNumber, (int) date.toEpochDay());
+        if (row == NO_ROW) {
+            return false;
+        }
+        if (occupancy != null && paidColumn.get(row) != paid) {
+            occupancy.setPaid(roomLookup.apply(roomNumber).getCategory(), dayColumn[row], paid);
+        }
+        paidColumn.set(row, paid);
+        for (ReservationListener listener : listeners) {
+            listener.reservationUpdated(row);
+        }
+        return true;
+    }
+
+    public synchronized Reservation get(int index) {
+        return index < size ? reservation(index) : null;
+    }
+
+    public synchronized Reservation get(int roomNumber, LocalDate date) {
+        int row = rowOf(roomNumber, (int) date.toEpochDay());
+        return row == NO_ROW ? null : reservation(row);
+    }
+
+    // Returns the size the listener's first event applies to
+    public synchronized int addListener(ReservationListener listener) {
+        listeners.add(listener);
+        return size;
+    }
+
+    public void removeListener(ReservationListener listener) {
+        listeners.remove(listener);
+    }
+
+    // The guest's earliest night in the room, or null. Keyed on the date rather than row order so
+    // journal replay over a snapshot (whose order swap-remove scrambles) picks the same one.
+    public synchronized Reservation find(String guestName, int roomNumber) {
+        int guest = guestNames.lookup(guestName);
+        if (guest < 0 || guest >= firstOfGuest.length) {
+            return null;
+        }
+        int slot = pairSlot(guest, roomNumber);
+        if (slot < 0) {
+            return null;
+        }
+        int best = pairTable[slot] - 1;
+        for (int row = nextOfPair[best]; row != NO_ROW; row = nextOfPair[row]) {
+            if (dayColumn[row] < dayColumn[best]) {
+                best = row;
+            }
+        }
+        return reservation(best);
+    }
+
+    // Ordered by night, then room
+    public synchronized List<Reservation> forGuest(String guestName) {
+        int guest = guestNames.lookup(guestName);
+        if (guest < 0 || guest >= firstOfGuest.length) {
+            return new ArrayList<>();
+        }
+        List<Reservation> list = new ArrayList<>();
+        for (int row = firstOfGuest[guest]; row != NO_ROW; row = nextOfGuest[row]) {
+            list.add(reservation(row));
+        }
+        Collections.sort(list, Comparator.comparing(Reservation::getDate)
+            .thenComparingInt(res -> res.getRoom().getRoomNumber()));
+        return list;
+    }
+
+    // Guests with a reservation in memory whose name starts with prefix, ignoring case, in case-insensitive
+    // order; at most limit of them. The first call sorts every guest's name; after that a call costs
+    // O(log guests + limit) plus any matching guests it skips for having no reservations left.
+    public List<String> guestsStartingWith(String prefix, int limit) {
+        while (true) {
+            synchronized (this) {
+                GuestNameIndex index = guestIndex;
+                if (index != null && !index.isMostlyDead()) {
+                    List<String> found = new ArrayList<>(Math.min(limit, 64));
+                    if (limit > 0) {
+                        index.forEachStartingWith(prefix, name -> {
+                            if (firstOfGuest[guestNames.lookup(name)] != NO_ROW) {
+                                found.add(name);
+                            }
+                            return found.size() < limit;
+                        });
+                    }
+                    return found;
+                }
+            }
+            buildGuestIndex();
+        }
+    }
+
+    // Copies the names and which guests have rows under the monitor, sorts with it released so bookings
+    // carry on, then takes it again to catch the index up on guests that came or went meanwhile: one pass
+    // over the ids, against a sort of every name
+    private void buildGuestIndex() {
+        synchronized (guestIndexBuild) {
+            String[] names;
+            BitSet live = new BitSet();
+            synchronized (this) {
+                if (guestIndex != null && !guestIndex.isMostlyDead()) {
+                    return;
+                }
+                names = guestNames.names();
+                for (int id = 0; id < names.length; id++) {
+                    if (hasRows(id)) {
+                        live.set(id);
+                    }
+                }
+            }
+            GuestNameIndex built = new GuestNameIndex(names, live);
+            synchronized (this) {
+                for (int id = 0; id < guestNames.size(); id++) {
+                    if (hasRows(id)) {
+                        built.add(id, guestNames.name(id));
+                    } else if (built.contains(id)) {
+                        built.died();
+                    }
+                }
+                guestIndex = built;
+            }
+        }
+    }
+
+    private boolean hasRows(int guest) {
+        return guest < firstOfGuest.length && firstOfGuest[guest] != NO_ROW;
+    }
+
+    // Live read-only view; iterating it while other threads book or cancel is unsafe, use snapshot() then
+    public List<Reservation> view() { return view; }
+
+    public synchronized List<Reservation> snapshot() {
+        List<Reservation> list = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            list.add(reservation(row));
+        }
+        return list;
+    }
+
+    // Rows [from, from + count), cut short at the end
+    public synchronized List<Reservation> snapshot(int from, int count) {
+        int end = (int) Math.min(size, (long) from + count);
+        List<Reservation> list = new ArrayList<>(Math.max(0, end - from));
+        for (int row = from; row < end; row++) {
+            list.add(reservation(row));
+        }
+        return list;
+    }
+
+    public synchronized Columns columns() {
+        return new Columns(size, Arrays.copyOf(roomColumn, size), Arrays.copyOf(dayColumn, size),
+            Arrays.copyOf(guestColumn, size), paidColumn.get(0, size), guestNames.names());
+    }
+
+    public synchronized int size() { return size; }
+
+    // The earliest night booked, or Integer.MAX_VALUE when there are no rows
+    public synchronized int minDay() {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < size; row++) {
+            min = Math.min(min, dayColumn[row]);
+        }
+        return min;
+    }
+
+    // Copies of the rows for nights in [fromDay, toDay), only the paid ones if paidOnly, with every guest
+    // name so the ids stay valid
+    synchronized Columns columnsBetween(int fromDay, int toDay, boolean paidOnly) {
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (selected(row, fromDay, toDay, paidOnly)) count++;
+        }
+        int[] rooms = new int[count];
+        int[] days = new int[count];
+        int[] guests = new int[count];
+        BitSet paid = new BitSet(count);
+        int i = 0;
+        for (int row = 0; row < size; row++) {
+            if (selected(row, fromDay, toDay, paidOnly)) {
+                rooms[i] = roomColumn[row];
+                days[i] = dayColumn[row];
+                guests[i] = guestColumn[row];
+                paid.set(i, paidColumn.get(row));
+                i++;
+            }
+        }
+        return new Columns(count, rooms, days, guests, paid, guestNames.names());
+    }
+
+    private boolean selected(int row, int fromDay, int toDay, boolean paidOnly) {
+        return dayColumn[row] >= fromDay && dayColumn[row] < toDay && (!paidOnly || paidColumn.get(row));
+    }
+
+    // The reservations for nights in [fromDay, toDay], ordered by night, then room
+    public synchronized List<Reservation> between(int fromDay, int toDay) {
+        List<Reservation> list = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (dayColumn[row] >= fromDay && dayColumn[row] <= toDay) {
+                list.add(reservation(row));
+            }
+        }
+        Collections.sort(list, Comparator.comparing(Reservation::getDate)
+            .thenComparingInt(res -> res.getRoom().getRoomNumber()));
+        return list;
+    }
+
+    synchronized boolean hasOccupancy() {
+        return occupancy != null;
+    }
+
+    // Counts every row on the pool into a fresh occupancy index, on top of the archived counts. Writers
+    // wait for the scan; the workers read the columns while this thread holds the monitor.
+    synchronized void buildOccupancy(Room.Category[] categoryByRoom, OccupancyIndex archived, ForkJoinPool pool) {
+        occupancy = OccupancyIndex.build(size, roomColumn, dayColumn, paidColumn, categoryByRoom, archived, pool);
+    }
+
+    // Counts for the nights [fromDay, toDay]; a null bound means the first or last night ever booked.
+    // Null if the index was never built.
+    synchronized OccupancyIndex.Slice occupancy(Integer fromDay, Integer toDay) {
+        if (occupancy == null) {
+            return null;
+        }
+        boolean empty = occupancy.isEmpty();
+        int from = fromDay != null ? fromDay : empty ? (toDay != null ? toDay + 1 : 0) : occupancy.minDay();
+        int to = toDay != null ? toDay : empty ? from - 1 : occupancy.maxDay();
+        return occupancy.slice(from, to);
+    }
+
+    private Reservation reservation(int row) {
+        Reservation res = new Reservation(guestNames.name(guestColumn[row]), roomLookup.apply(roomColumn[row]),
+            LocalDate.ofEpochDay(dayColumn[row]));
+        res.setPaid(paidColumn.get(row));
+        return res;
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (capacity > roomColumn.length) {
+            int length = Math.max(capacity, roomColumn.length + (roomColumn.length >> 1));
+            roomColumn = Arrays.copyOf(roomColumn, length);
+            dayColumn = Arrays.copyOf(dayColumn, length);
+            guestColumn = Arrays.copyOf(guestColumn, length);
+            nextOfGuest = Arrays.copyOf(nextOfGuest, length);
+            prevOfGuest = Arrays.copyOf(prevOfGuest, length);
+            nextOfPair = Arrays.copyOf(nextOfPair, length);
+            prevOfPair = Arrays.copyOf(prevOfPair, length);
+        }
+    }
+
+    private void unlink(int row) {
+        int prev = prevOfGuest[row];
+        int next = nextOfGuest[row];
+        if (prev != NO_ROW) {
+            nextOfGuest[prev] = next;
+        } else {
+            firstOfGuest[guestColumn[row]] = next;
+            if (next == NO_ROW && guestIndex != null) {
+                guestIndex.died();
+            }
+        }
+        if (next != NO_ROW) {
+            prevOfGuest[next] = prev;
+        }
+    }
+
+    // Fills the hole left at row to with the last row; the caller has already repointed its table slot
+    private void moveRow(int from, int to) {
+        roomColumn[to] = roomColumn[from];
+        dayColumn[to] = dayColumn[from];
+        guestColumn[to] = guestColumn[from];
+        paidColumn.set(to, paidColumn.get(from));
+        int prev = prevOfGuest[from];
+        int next = nextOfGuest[from];
+        prevOfGuest[to] = prev;
+        nextOfGuest[to] = next;
+        if (prev != NO_ROW) {
+            nextOfGuest[prev] = to;
+        } else {
+            firstOfGuest[guestColumn[from]] = to;
+        }
+        if (next != NO_ROW) {
+            prevOfGuest[next] = to;
+        }
+        prev = prevOfPair[from];
+        next = nextOfPair[from];
+        prevOfPair[to] = prev;
+        nextOfPair[to] = next;
+        if (prev != NO_ROW) {
+            nextOfPair[prev] = to;
+        } else {
+            pairTable[pairSlot(guestColumn[from], roomColumn[from])] = to + 1;
+        }
+        if (next != NO_ROW) {
+            prevOfPair[next] = to;
+        }
+    }
+
+    // Puts row at the head of its (guest, room) chain, adding the pair to pairTable if it is new
+    private void linkPair(int row) {
+        int slot = pairSlot(guestColumn[row], roomColumn[row]);
+        prevOfPair[row] = NO_ROW;
+        if (slot >= 0) {
+            int head = pairTable[slot] - 1;
+            nextOfPair[row] = head;
+            prevOfPair[head] = row;
+            pairTable[slot] = row + 1;
+            return;
+        }
+        nextOfPair[row] = NO_ROW;
+        if (++pairs * 2 > pairTable.length) {
+            rehashPairs(pairTable.length * 2);
+        }
+        pairTable[freePairSlot(guestColumn[row], roomColumn[row])] = row + 1;
+    }
+
+    private void unlinkPair(int row) {
+        int prev = prevOfPair[row];
+        int next = nextOfPair[row];
+        if (prev != NO_ROW) {
+            nextOfPair[prev] = next;
+        } else {
+            int slot = pairSlot(guestColumn[row], roomColumn[row]);
+            if (next != NO_ROW) {
+                pairTable[slot] = next + 1;
+            } else {
+                deletePairSlot(slot);
+                pairs--;
+            }
+        }
+        if (next != NO_ROW) {
+            prevOfPair[next] = prev;
+        }
+    }
+
+    private static int hash(int roomNumber, int day) {
+        long key = ((long) roomNumber << 32) | (day & 0xFFFFFFFFL);
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private int rowOf(int roomNumber, int day) {
+        int mask = rowTable.length - 1;
+        for (int slot = hash(roomNumber, day) & mask; rowTable[slot] != 0; slot = (slot + 1) & mask) {
+            int row = rowTable[slot] - 1;
+            if (roomColumn[row] == roomNumber && dayColumn[row] == day) {
+                return row;
+            }
+        }
+        return NO_ROW;
+    }
+
+    private int slotOfRow(int row) {
+        int mask = rowTable.length - 1;
+        int slot = hash(roomColumn[row], dayColumn[row]) & mask;
+        while (rowTable[slot] != row + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int freeSlot(int roomNumber, int day) {
+        int mask = rowTable.length - 1;
+        int slot = hash(roomNumber, day) & mask;
+        while (rowTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int length) {
+        rowTable = new int[length];
+        for (int row = 0; row < size; row++) {
+            rowTable[freeSlot(roomColumn[row], dayColumn[row])] = row + 1;
+        }
+    }
+
+    // Backward-shift deletion keeps every probe chain unbroken without tombstones
+    private void deleteSlot(int slot) {
+        int mask = rowTable.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; rowTable[next] != 0; next = (next + 1) & mask) {
+            int row = rowTable[next] - 1;
+            int home = hash(roomColumn[row], dayColumn[row]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                rowTable[hole] = rowTable[next];
+                hole = next;
+            }
+        }
+        rowTable[hole] = 0;
+    }
+
+    // The slot holding the pair's chain, or -1 if the guest has no row in the room
+    private int pairSlot(int guest, int roomNumber) {
+        int mask = pairTable.length - 1;
+        for (int slot = hash(guest, roomNumber) & mask; pairTable[slot] != 0; slot = (slot + 1) & mask) {
+            int row = pairTable[slot] - 1;
+            if (guestColumn[row] == guest && roomColumn[row] == roomNumber) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int freePairSlot(int guest, int roomNumber) {
+        int mask = pairTable.length - 1;
+        int slot = hash(guest, roomNumber) & mask;
+        while (pairTable[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Only chain heads go in the table. Rows at or past size are not linked yet.
+    private void rehashPairs(int length) {
+        pairTable = new int[length];
+        for (int row = 0; row < size; row++) {
+            if (prevOfPair[row] == NO_ROW) {
+                pairTable[freePairSlot(guestColumn[row], roomColumn[row])] = row + 1;
+            }
+        }
+    }
+
+    private void deletePairSlot(int slot) {
+        int mask = pairTable.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; pairTable[next] != 0; next = (next + 1) & mask) {
+            int row = pairTable[next] - 1;
+            int home = hash(guestColumn[row], roomColumn[row]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                pairTable[hole] = pairTable[next];
+                hole = next;
+            }
+        }
+        pairTable[hole] = 0;
+    }
+}
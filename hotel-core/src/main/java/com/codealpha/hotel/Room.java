@@ -0,0 +1,44 @@
+package com.codealpha.hotel;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+public class Room implements Serializable {
+    private static final long serialVersionUID = 1L;
+    // Nightly rates default as below and can be overridden per category, e.g. -Dhotel.rate.DELUXE=175.00
+    public enum Category {
+        STANDARD("100.00"), DELUXE("180.00"), SUITE("300.00");
+
+        private final BigDecimal nightlyRate;
+
+        Category(String defaultRate) {
+            this.nightlyRate = new BigDecimal(System.getProperty("hotel.rate." + name(), defaultRate));
+        }
+
+        public BigDecimal getNightlyRate() { return nightlyRate; }
+    }
+    private int roomNumber;
+    private Category category;
+    private volatile boolean isAvailable;
+    // Position + 1 in the category's AvailableRooms, 0 when not in it; maintained by Hotel
+    transient int availableSlot;
+    // Bumped by Hotel with every change to the room's bookings, including changes read from other processes
+    transient volatile long version;
+
+    public Room(int roomNumber, Category category) {
+        this.roomNumber = roomNumber;
+        this.category = category;
+        this.isAvailable = true;
+    }
+
+    public int getRoomNumber() { return roomNumber; }
+    public Category getCategory() { return category; }
+    public boolean isAvailable() { return isAvailable; }
+    // Maintained by Hotel and BinarySnapshot from the room's bookings
+    void setAvailable(boolean available) { isAvailable = available; }
+
+    @Override
+    public String toString() {
+        return "Room " + roomNumber + " (" + category + ") - " + (isAvailable ? "Available" : "Booked");
+    }
+}
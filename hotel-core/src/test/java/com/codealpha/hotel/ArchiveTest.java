@@ -0,0 +1,181 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArchiveTest {
+    private static final LocalDate JANUARY = LocalDate.of(2030, 1, 1);
+    private static final LocalDate FEBRUARY = LocalDate.of(2030, 2, 1);
+    private static final String JOURNAL = "reservations.journal";
+
+    @TempDir
+    File dir;
+
+    @TempDir
+    File saved;
+
+    private Hotel open() {
+        return new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, false);
+    }
+
+    // Rooms 1-10 on the first 5 nights of January and of February; even rooms paid
+    private static void book(Hotel hotel) {
+        for (LocalDate month : new LocalDate[] { JANUARY, FEBRUARY }) {
+            for (int night = 0; night < 5; night++) {
+                for (int room = 1; room <= 10; room++) {
+                    String guest = guest(room, month.plusDays(night));
+                    assertTrue(hotel.bookRoom(guest, room, month.plusDays(night)));
+                    if (room % 2 == 0) {
+                        assertTrue(hotel.payReservation(guest, room));
+                    }
+                }
+            }
+        }
+    }
+
+    private static String guest(int room, LocalDate night) {
+        return "guest-" + room + "-" + night;
+    }
+
+    private static List<String> inMemory(Hotel hotel) {
+        List<String> rows = new ArrayList<>();
+        for (Reservation res : hotel.snapshotReservations()) {
+            rows.add(res.getDate() + " " + res.getRoom().getRoomNumber() + " " + res.getGuestName() + " " + res.isPaid());
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private static List<String> history(Hotel hotel) {
+        try (Stream<Reservation> stays = hotel.reservationHistory(null, null)) {
+            return stays.map(res -> res.getDate() + " " + res.getRoom().getRoomNumber() + " " + res.isPaid())
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static void assertOrderedByNightThenRoom(List<String> history) {
+        for (int i = 1; i < history.size(); i++) {
+            String[] a = history.get(i - 1).split(" ");
+            String[] b = history.get(i).split(" ");
+            int order = a[0].compareTo(b[0]);
+            assertTrue(order < 0 || order == 0 && Integer.parseInt(a[1]) < Integer.parseInt(b[1]),
+                history.get(i - 1) + " before " + history.get(i));
+        }
+    }
+
+    @Test
+    void unpaidStaysStayInMemoryAndCanBePaidOrCancelled() {
+        Hotel hotel = open();
+        List<String> kept;
+        List<String> everything;
+        try {
+            book(hotel);
+            assertEquals(25, hotel.archiveBefore(FEBRUARY));
+            assertEquals(25, hotel.getArchivedReservationCount());
+            assertEquals(FEBRUARY, hotel.getArchiveHorizon());
+            assertEquals(75, hotel.getReservationCount());
+
+            LocalDate night = JANUARY.plusDays(2);
+            assertTrue(hotel.payReservation(guest(3, night), 3), "an unpaid archived-month stay can be paid");
+            assertTrue(hotel.cancelReservation(guest(5, night), 5), "and cancelled");
+            assertFalse(hotel.cancelReservation(guest(4, night), 4), "a paid one is archived");
+            assertFalse(hotel.bookRoom("late", 5, night), "nights before the horizon cannot be booked");
+
+            everything = history(hotel);
+            assertEquals(99, everything.size());
+            assertOrderedByNightThenRoom(everything);
+            kept = inMemory(hotel);
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open();
+        try {
+            assertEquals(kept, inMemory(reopened));
+            assertEquals(everything, history(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void rolloverInterruptedBeforeItsSnapshotDropsExactlyWhatWasArchived() throws IOException {
+        Hotel hotel = open();
+        try {
+            book(hotel);
+        } finally {
+            hotel.close();
+        }
+        for (String name : new String[] { BinarySnapshot.FILE, JOURNAL }) {
+            Files.copy(new File(dir, name).toPath(), new File(saved, name).toPath());
+        }
+        List<String> kept;
+        List<String> everything;
+        hotel = open();
+        try {
+            hotel.archiveBefore(FEBRUARY);
+            kept = inMemory(hotel);
+            everything = history(hotel);
+        } finally {
+            hotel.close();
+        }
+        // As if the process died after writing the segments, before saving the snapshot without their rows
+        for (String name : new String[] { BinarySnapshot.FILE, JOURNAL }) {
+            Files.copy(new File(saved, name).toPath(), new File(dir, name).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Hotel recovered = open();
+        try {
+            assertEquals(kept, inMemory(recovered));
+            assertEquals(everything, history(recovered));
+            assertEquals(100, everything.size());
+        } finally {
+            recovered.close();
+        }
+    }
+
+    // Names up to BinarySnapshot.MAX_NAME_BYTES are accepted at booking, so the archive must take them too,
+    // or their month could never roll over
+    @Test
+    void namesPastThirtyTwoKilobytesAreArchived() {
+        StringBuilder name = new StringBuilder();
+        while (name.length() < 40000) {
+            name.append("guest-");
+        }
+        String guest = name.toString();
+        Hotel hotel = open();
+        try {
+            assertTrue(hotel.bookRoom(guest, 1, JANUARY));
+            assertTrue(hotel.payReservation(guest, 1));
+            assertEquals(1, hotel.archiveBefore(FEBRUARY));
+            assertEquals(FEBRUARY, hotel.getArchiveHorizon());
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open();
+        try {
+            assertEquals(FEBRUARY, reopened.getArchiveHorizon());
+            try (Stream<Reservation> stays = reopened.reservationHistory(null, null)) {
+                List<Reservation> all = stays.collect(Collectors.toList());
+                assertEquals(1, all.size());
+                assertEquals(guest, all.get(0).getGuestName());
+                assertTrue(all.get(0).isPaid());
+            }
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinarySnapshotTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private Hotel open() {
+        return new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, false);
+    }
+
+    @Test
+    void namesUpToTheJournalLimitSurviveACompaction() {
+        // Past Short.MAX_VALUE bytes, which the snapshot used to reject after the journal had accepted it
+        String longest = repeat('a', 0xFFFF);
+        String wide = repeat('\u20ac', 0xFFFF / 3);
+        Hotel hotel = open();
+        try {
+            assertTrue(hotel.bookRoom(longest, 1, NIGHT));
+            assertTrue(hotel.bookRoom(wide, 2, NIGHT));
+            hotel.compact();
+            assertTrue(hotel.bookRoom("after", 3, NIGHT));
+            hotel.compact();
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open();
+        try {
+            List<Reservation> reservations = reopened.snapshotReservations();
+            assertEquals(3, reservations.size());
+            assertEquals(1, reopened.getReservationsForGuest(longest).size());
+            assertEquals(1, reopened.getReservationsForGuest(wide).size());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void namesPastTheLimitAreRefusedBeforeAnythingIsWritten() {
+        Hotel hotel = open();
+        try {
+            assertFalse(hotel.bookRoom(repeat('a', 0x10000), 1, NIGHT));
+            assertFalse(hotel.bookRoom(repeat('\u20ac', 0xFFFF / 3 + 1), 1, NIGHT));
+            // NUL takes two bytes in the journal's modified UTF-8
+            assertFalse(hotel.bookRoom(repeat('\0', 0x8000), 1, NIGHT));
+            BatchResult result = hotel.applyBatch(Arrays.asList(BatchOperation.book(repeat('b', 0x10000), 1, NIGHT)),
+                Hotel.BatchMode.BEST_EFFORT);
+            assertEquals("Guest name too long", result.error(0));
+            assertEquals(0, hotel.getReservationCount());
+            hotel.compact();
+        } finally {
+            hotel.close();
+        }
+    }
+
+    // A snapshot from before nights were checked may hold one far outside the window; loading it must not
+    // stretch the calendar and report counts across the centuries in between
+    @Test
+    void nightsOutsideTheBookableWindowAreSkippedOnLoad() throws Exception {
+        List<Room> rooms = Arrays.asList(new Room(1, Room.Category.STANDARD), new Room(2, Room.Category.DELUXE));
+        BinarySnapshot.write(new File(dir, BinarySnapshot.FILE), rooms, Arrays.asList(
+            new Reservation("ancient", rooms.get(0), LocalDate.of(1, 1, 1)),
+            new Reservation("kept", rooms.get(1), NIGHT)), 0);
+        Hotel hotel = open();
+        try {
+            List<Reservation> reservations = hotel.snapshotReservations();
+            assertEquals(1, reservations.size());
+            assertEquals("kept", reservations.get(0).getGuestName());
+            OccupancyReport report = hotel.occupancyReport(OccupancyReport.Granularity.DAY, null, null);
+            assertEquals(NIGHT, report.getFrom());
+            assertEquals(NIGHT, report.getTo());
+        } finally {
+            hotel.close();
+        }
+        OccupancyCalendar calendar = new OccupancyCalendar();
+        assertThrows(IllegalArgumentException.class, () -> calendar.mark(1, LocalDate.of(1, 1, 1)));
+    }
+}
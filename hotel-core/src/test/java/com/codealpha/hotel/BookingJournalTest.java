@@ -0,0 +1,181 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingJournalTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    // Every operation replayed, in order, as "book guest room night paid", "cancel guest room" or "pay guest room"
+    private static final class Recorder implements BookingJournal.Replay {
+        final List<String> ops = new ArrayList<>();
+
+        public void book(String guestName, int roomNumber, LocalDate date, boolean paid) {
+            ops.add("book " + guestName + " " + roomNumber + " " + date + " " + paid);
+        }
+
+        public void cancel(String guestName, int roomNumber) {
+            ops.add("cancel " + guestName + " " + roomNumber);
+        }
+
+        public void pay(String guestName, int roomNumber) {
+            ops.add("pay " + guestName + " " + roomNumber);
+        }
+    }
+
+    // Writes count records and returns what each one replays as; ends[i] is the file length after record i
+    private List<String> writeRecords(File file, int count, long[] ends) throws IOException {
+        List<String> expected = new ArrayList<>();
+        try (BookingJournal journal = new BookingJournal(file, BookingJournal.Durability.NONE, 0, 0, new Recorder())) {
+            for (int i = 0; i < count; i++) {
+                String guest = "guest-" + i;
+                switch (i % 3) {
+                    case 0:
+                        journal.appendBook(guest, i, NIGHT.plusDays(i), i % 2 == 0);
+                        expected.add("book " + guest + " " + i + " " + NIGHT.plusDays(i) + " " + (i % 2 == 0));
+                        break;
+                    case 1:
+                        journal.appendCancel(guest, i);
+                        expected.add("cancel " + guest + " " + i);
+                        break;
+                    default:
+                        journal.appendPay(guest, i);
+                        expected.add("pay " + guest + " " + i);
+                        break;
+                }
+                ends[i] = file.length();
+            }
+        }
+        return expected;
+    }
+
+    private static List<String> replay(File file, long snapshotSeq) throws IOException {
+        Recorder recorder = new Recorder();
+        new BookingJournal(file, BookingJournal.Durability.NONE, 0, snapshotSeq, recorder).close();
+        return recorder.ops;
+    }
+
+    @Test
+    void replaysEveryWholeRecordBeforeATornTail() throws IOException {
+        int count = 50;
+        long[] ends = new long[count];
+        File original = new File(dir, "original.journal");
+        List<String> expected = writeRecords(original, count, ends);
+        Random random = new Random(1);
+        for (int trial = 0; trial < 200; trial++) {
+            long cut = random.nextInt((int) original.length() + 1);
+            File file = new File(dir, "torn.journal");
+            Files.copy(original.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(cut);
+            }
+            int whole = 0;
+            while (whole < count && ends[whole] <= cut) {
+                whole++;
+            }
+            assertEquals(expected.subList(0, whole), replay(file, 0), "cut at " + cut);
+            // The torn tail is gone, so a record appended now follows the last whole one
+            assertEquals(whole == 0 ? 0 : ends[whole - 1], file.length(), "cut at " + cut);
+            try (BookingJournal journal = new BookingJournal(file, BookingJournal.Durability.NONE, 0, 0, new Recorder())) {
+                journal.appendCancel("late", 1);
+            }
+            List<String> afterAppend = new ArrayList<>(expected.subList(0, whole));
+            afterAppend.add("cancel late 1");
+            assertEquals(afterAppend, replay(file, 0), "cut at " + cut);
+        }
+    }
+
+    @Test
+    void stopsAtARecordWithABadChecksum() throws IOException {
+        int count = 10;
+        long[] ends = new long[count];
+        File file = new File(dir, "corrupt.journal");
+        List<String> expected = writeRecords(file, count, ends);
+        // Flip a byte inside record 4's payload, past its length and checksum
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long at = ends[3] + 8 + 9;
+            raf.seek(at);
+            int b = raf.read();
+            raf.seek(at);
+            raf.write(b ^ 0x55);
+        }
+        assertEquals(expected.subList(0, 4), replay(file, 0));
+        assertEquals(ends[3], file.length());
+    }
+
+    @Test
+    void skipsRecordsTheSnapshotCovers() throws IOException {
+        int count = 12;
+        File file = new File(dir, "covered.journal");
+        List<String> expected = writeRecords(file, count, new long[count]);
+        assertEquals(expected.subList(5, count), replay(file, 5));
+        assertEquals(expected, replay(file, 0));
+    }
+
+    @Test
+    void replaysABatchAsAWhole() throws IOException {
+        File file = new File(dir, "batch.journal");
+        List<BatchOperation> ops = new ArrayList<>();
+        ops.add(BatchOperation.book("a", 1, NIGHT));
+        ops.add(BatchOperation.pay("a", 1));
+        ops.add(BatchOperation.cancel("b", 2));
+        long end;
+        try (BookingJournal journal = new BookingJournal(file, BookingJournal.Durability.NONE, 0, 0, new Recorder())) {
+            journal.appendBook("first", 3, NIGHT);
+            end = file.length();
+            journal.appendBatch(ops);
+        }
+        List<String> all = replay(file, 0);
+        assertEquals(4, all.size());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(file.length() - 1);
+        }
+        assertEquals(all.subList(0, 1), replay(file, 0));
+        assertEquals(end, file.length());
+    }
+
+    @Test
+    void groupCommitFailuresFailOnlyTheRecordsTheyWereToSync() throws IOException {
+        File file = new File(dir, "group.journal");
+        // The flusher never runs on its own; the test drives every sync
+        try (BookingJournal journal = new BookingJournal(file, BookingJournal.Durability.GROUP_COMMIT, 3_600_000, 0,
+                new Recorder())) {
+            List<Long> seqs = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                seqs.add(journal.appendBook("guest-" + i, i, NIGHT));
+                if (seqs.size() == 2) {
+                    journal.syncFailed(0, seqs.get(1), new IOException("first"));
+                } else if (seqs.size() == 5) {
+                    journal.groupCommit();
+                }
+            }
+            journal.syncFailed(seqs.get(4), seqs.get(7), new IOException("second"));
+
+            for (int i = 0; i < 8; i++) {
+                long seq = seqs.get(i);
+                if (i >= 2 && i < 5) {
+                    journal.commit(seq);
+                } else {
+                    IOException e = assertThrows(IOException.class, () -> journal.commit(seq), "record " + i);
+                    assertEquals(i < 2 ? "first" : "second", e.getCause().getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentBookingTest {
+    private static final int THREADS = 64;
+    private static final int ROOMS = 10;
+    private static final int NIGHTS = 5;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private Hotel open(BookingJournal.Durability durability) {
+        return new Hotel(dir, durability, 1, -1, false);
+    }
+
+    // Runs one task per thread, all released at once, and returns their results in thread order
+    private static <T> List<T> race(List<Callable<T>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        // The last task to arrive opens the gate for all of them
+        CountDownLatch start = new CountDownLatch(tasks.size());
+        try {
+            List<Callable<T>> gated = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                gated.add(() -> {
+                    start.countDown();
+                    start.await();
+                    return task.call();
+                });
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : pool.invokeAll(gated)) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> occupants(Hotel hotel) {
+        Map<String, String> byNight = new HashMap<>();
+        for (Reservation res : hotel.snapshotReservations()) {
+            String key = res.getRoom().getRoomNumber() + " " + res.getDate();
+            String previous = byNight.put(key, res.getGuestName());
+            assertEquals(null, previous, "double booking of " + key);
+        }
+        return byNight;
+    }
+
+    private void exactlyOneWinnerPerRoomNight(BookingJournal.Durability durability) throws Exception {
+        Hotel hotel = open(durability);
+        Map<String, String> live;
+        try {
+            List<Callable<Set<String>>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String guest = "guest-" + t;
+                Random random = new Random(t);
+                tasks.add(() -> {
+                    List<String> cells = new ArrayList<>();
+                    for (int room = 1; room <= ROOMS; room++) {
+                        for (int night = 0; night < NIGHTS; night++) {
+                            cells.add(room + " " + FIRST_NIGHT.plusDays(night));
+                        }
+                    }
+                    Collections.shuffle(cells, random);
+                    Set<String> won = new HashSet<>();
+                    for (String cell : cells) {
+                        String[] parts = cell.split(" ");
+                        if (hotel.bookRoom(guest, Integer.parseInt(parts[0]), LocalDate.parse(parts[1]))) {
+                            won.add(cell);
+                        }
+                    }
+                    return won;
+                });
+            }
+            List<Set<String>> results = race(tasks);
+
+            Map<String, String> winners = new HashMap<>();
+            for (int t = 0; t < THREADS; t++) {
+                for (String cell : results.get(t)) {
+                    String previous = winners.put(cell, "guest-" + t);
+                    assertEquals(null, previous, "two winners for " + cell);
+                }
+            }
+            assertEquals(ROOMS * NIGHTS, winners.size());
+            live = occupants(hotel);
+            assertEquals(winners, live);
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open(durability);
+        try {
+            assertEquals(live, occupants(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void exactlyOneWinnerPerRoomNightWithFsyncEach() throws Exception {
+        exactlyOneWinnerPerRoomNight(BookingJournal.Durability.FSYNC_EACH);
+    }
+
+    @Test
+    void exactlyOneWinnerPerRoomNightWithGroupCommit() throws Exception {
+        exactlyOneWinnerPerRoomNight(BookingJournal.Durability.GROUP_COMMIT);
+    }
+
+    @Test
+    void bookAndCancelChurnLosesNoReservation() throws Exception {
+        Hotel hotel = open(BookingJournal.Durability.NONE);
+        Map<String, String> live;
+        try {
+            List<Callable<Map<String, String>>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String guest = "churn-" + t;
+                Random random = new Random(1000 + t);
+                tasks.add(() -> {
+                    // What this guest holds, by room; a guest keeps at most one night per room so cancel is unambiguous
+                    Map<Integer, LocalDate> held = new HashMap<>();
+                    for (int i = 0; i < 2000; i++) {
+                        int room = 1 + random.nextInt(ROOMS);
+                        if (held.containsKey(room)) {
+                            assertTrue(hotel.cancelReservation(guest, room), guest + " lost room " + room);
+                            held.remove(room);
+                        } else {
+                            LocalDate night = FIRST_NIGHT.plusDays(random.nextInt(NIGHTS));
+                            if (hotel.bookRoom(guest, room, night)) {
+                                held.put(room, night);
+                            }
+                        }
+                    }
+                    Map<String, String> cells = new HashMap<>();
+                    for (Map.Entry<Integer, LocalDate> entry : held.entrySet()) {
+                        cells.put(entry.getKey() + " " + entry.getValue(), guest);
+                    }
+                    return cells;
+                });
+            }
+            Map<String, String> expected = new HashMap<>();
+            for (Map<String, String> cells : race(tasks)) {
+                for (Map.Entry<String, String> cell : cells.entrySet()) {
+                    String previous = expected.put(cell.getKey(), cell.getValue());
+                    assertEquals(null, previous, "two holders of " + cell.getKey());
+                }
+            }
+            live = occupants(hotel);
+            assertEquals(expected, live);
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open(BookingJournal.Durability.NONE);
+        try {
+            assertEquals(live, occupants(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+}
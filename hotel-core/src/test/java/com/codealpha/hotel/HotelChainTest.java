@@ -0,0 +1,48 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelChainTest {
+    @TempDir
+    File root;
+
+    @Test
+    void searchesThatMissTheBudgetAreCancelledAndSkipped() throws Exception {
+        assertTrue(new File(root, "prop-000").mkdir());
+        try (HotelChain chain = new HotelChain(root, BookingJournal.Durability.NONE, 0)) {
+            chain.submit("prop-000", h -> h).get(1, TimeUnit.MINUTES);
+
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Object> busy = chain.submit("prop-000", h -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            AtomicInteger ran = new AtomicInteger();
+            CompletableFuture<Integer> abandoned = chain.submit("prop-000", h -> ran.incrementAndGet());
+            HotelChain.SearchResult result = chain.searchRooms(Collections.singleton("prop-000"), Room.Category.STANDARD,
+                null, null, 20);
+            assertEquals(Collections.singleton("prop-000"), result.getTimedOut());
+            abandoned.cancel(false);
+
+            release.countDown();
+            busy.get(1, TimeUnit.MINUTES);
+            assertEquals(1, (int) chain.submit("prop-000", h -> ran.incrementAndGet()).get(1, TimeUnit.MINUTES),
+                "the cancelled call ran after all");
+        }
+    }
+}
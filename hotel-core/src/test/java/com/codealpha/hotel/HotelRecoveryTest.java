@@ -0,0 +1,136 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelRecoveryTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private Hotel open() {
+        return new Hotel(dir, BookingJournal.Durability.FSYNC_EACH, 0, -1, false);
+    }
+
+    private static List<String> state(Hotel hotel) {
+        List<String> rows = new ArrayList<>();
+        for (Reservation res : hotel.snapshotReservations()) {
+            rows.add(res.getRoom().getRoomNumber() + " " + res.getDate() + " " + res.getGuestName() + " " + res.isPaid());
+        }
+        Collections.sort(rows);
+        return rows;
+    }
+
+    private static void churn(Hotel hotel, Random random, String prefix, int operations) {
+        List<String[]> booked = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            int pick = random.nextInt(10);
+            if (pick < 6 || booked.isEmpty()) {
+                String guest = prefix + i;
+                int room = 1 + random.nextInt(10);
+                if (hotel.bookRoom(guest, room, NIGHT.plusDays(random.nextInt(30)))) {
+                    booked.add(new String[] { guest, String.valueOf(room) });
+                }
+            } else if (pick < 8) {
+                String[] res = booked.remove(random.nextInt(booked.size()));
+                assertTrue(hotel.cancelReservation(res[0], Integer.parseInt(res[1])));
+            } else {
+                String[] res = booked.get(random.nextInt(booked.size()));
+                assertTrue(hotel.payReservation(res[0], Integer.parseInt(res[1])));
+            }
+        }
+    }
+
+    @Test
+    void snapshotAndJournalReplayToTheSameState() {
+        Random random = new Random(7);
+        Hotel hotel = open();
+        churn(hotel, random, "before-", 300);
+        hotel.compact();
+        churn(hotel, random, "after-", 300);
+        List<String> expected = state(hotel);
+        hotel.close();
+
+        Hotel reopened = open();
+        try {
+            assertEquals(expected, state(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void aTornJournalTailLosesOnlyTheLastChange() throws IOException {
+        Hotel hotel = open();
+        hotel.compact();
+        assertTrue(hotel.bookRoom("kept", 1, NIGHT));
+        assertTrue(hotel.payReservation("kept", 1));
+        List<String> expected = state(hotel);
+        assertTrue(hotel.bookRoom("torn", 2, NIGHT));
+        hotel.close();
+
+        File journal = new File(dir, "reservations.journal");
+        try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+            raf.setLength(journal.length() - 3);
+        }
+        Hotel reopened = open();
+        try {
+            assertEquals(expected, state(reopened));
+            // Appending after the cut must not leave the torn record in the middle of the file
+            assertTrue(reopened.bookRoom("later", 3, NIGHT));
+            expected = state(reopened);
+        } finally {
+            reopened.close();
+        }
+        Hotel again = open();
+        try {
+            assertEquals(expected, state(again));
+        } finally {
+            again.close();
+        }
+    }
+
+    // Nights are stored as int epoch days, so one past the window would be truncated in the snapshot
+    // while the journal kept it whole
+    @Test
+    void nightsOutsideTheBookableWindowAreRefusedBeforeJournaling() {
+        Hotel hotel = open();
+        try {
+            assertFalse(hotel.bookRoom("far", 1, LocalDate.MAX));
+            assertFalse(hotel.bookRoom("far", 1, LocalDate.of(9999, 12, 31).plusDays(1)));
+            assertFalse(hotel.bookRoom("far", 1, LocalDate.of(1899, 12, 31)));
+            assertTrue(hotel.bookRoom("near", 1, LocalDate.of(9999, 12, 31)));
+            assertTrue(hotel.bookRoom("near", 2, LocalDate.of(1900, 1, 1)));
+
+            BatchResult result = hotel.applyBatch(Arrays.asList(BatchOperation.book("far", 3, LocalDate.MIN),
+                BatchOperation.book("near", 3, NIGHT)), Hotel.BatchMode.BEST_EFFORT);
+            assertFalse(result.succeeded(0));
+            assertTrue(result.error(0).contains("outside"), result.error(0));
+            assertTrue(result.succeeded(1));
+        } finally {
+            hotel.close();
+        }
+        Hotel reopened = open();
+        try {
+            assertEquals(Arrays.asList("1 9999-12-31 near false", "2 1900-01-01 near false", "3 " + NIGHT + " near false"),
+                state(reopened));
+        } finally {
+            reopened.close();
+        }
+    }
+}
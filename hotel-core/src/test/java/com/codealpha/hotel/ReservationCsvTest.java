@@ -0,0 +1,112 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationCsvTest {
+    private static final LocalDate NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void open() {
+        hotel = new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, false);
+    }
+
+    @AfterEach
+    void close() {
+        hotel.close();
+    }
+
+    private static String bookings(int count) {
+        StringBuilder csv = new StringBuilder(ReservationCsv.HEADER).append('\n');
+        for (int i = 0; i < count; i++) {
+            csv.append("BOOK,guest-").append(i).append(',').append(1 + i % 10).append(',')
+                .append(NIGHT.plusDays(i / 10)).append(",false\n");
+        }
+        return csv.toString();
+    }
+
+    private ReservationCsv.ImportResult importCsv(String csv, Hotel.BatchMode mode, StringWriter rejects) throws IOException {
+        return ReservationCsv.importCsv(hotel, new StringReader(csv), mode, 10, rejects);
+    }
+
+    @Test
+    void allOrNothingRollsBackTheWholeFileNotJustAChunk() throws IOException {
+        // The conflict is in the third chunk of ten; the first two must not stay applied
+        String csv = bookings(25) + "BOOK,late,1,2030-01-01,false\n";
+        StringWriter rejects = new StringWriter();
+        ReservationCsv.ImportResult result = importCsv(csv, Hotel.BatchMode.ALL_OR_NOTHING, rejects);
+        assertEquals(26, result.rows);
+        assertEquals(0, result.applied);
+        assertEquals(0, hotel.getReservationCount());
+        assertTrue(rejects.toString().contains("27,Room 1 is already booked on 2030-01-01"), rejects.toString());
+
+        result = importCsv(bookings(25), Hotel.BatchMode.ALL_OR_NOTHING, new StringWriter());
+        assertEquals(25, result.applied);
+        assertEquals(25, hotel.getReservationCount());
+    }
+
+    @Test
+    void allOrNothingAppliesNothingWhenARowDoesNotParse() throws IOException {
+        String csv = bookings(15) + "BOOK,bad,x,2030-01-01\n";
+        ReservationCsv.ImportResult result = importCsv(csv, Hotel.BatchMode.ALL_OR_NOTHING, new StringWriter());
+        assertEquals(16, result.rows);
+        assertEquals(0, result.applied);
+        assertEquals(0, hotel.getReservationCount());
+    }
+
+    @Test
+    void anUnterminatedQuoteRejectsOnlyTheRowItOpensOn() throws IOException {
+        String csv = "BOOK,first,1,2030-01-01\n"
+            + "BOOK,\"never closed,2,2030-01-01\n"
+            + "BOOK,second,3,2030-01-01\n"
+            + "BOOK,third,4,2030-01-01\n";
+        StringWriter rejects = new StringWriter();
+        ReservationCsv.ImportResult result = importCsv(csv, Hotel.BatchMode.BEST_EFFORT, rejects);
+        assertEquals(4, result.rows);
+        assertEquals(3, result.applied);
+        assertEquals("2,Unterminated quoted field\n", rejects.toString());
+        assertEquals(1, hotel.getReservationsForGuest("third").size());
+    }
+
+    @Test
+    void aQuotedFieldMayHoldLineBreaksAndQuotes() throws IOException {
+        String csv = "BOOK,\"two\nlines, \"\"quoted\"\"\",1,2030-01-01\n"
+            + "BOOK,after,2,bad-date\n";
+        StringWriter rejects = new StringWriter();
+        ReservationCsv.ImportResult result = importCsv(csv, Hotel.BatchMode.BEST_EFFORT, rejects);
+        assertEquals(1, result.applied);
+        assertEquals(1, hotel.getReservationsForGuest("two\nlines, \"quoted\"").size());
+        assertTrue(rejects.toString().startsWith("3,"), rejects.toString());
+    }
+
+    @Test
+    void anOverlongQuotedFieldIsCutOff() throws IOException {
+        StringBuilder csv = new StringBuilder("BOOK,\"runaway,1,2030-01-01\n");
+        int count = 0;
+        while (csv.length() <= ReservationCsv.MAX_RECORD_CHARS) {
+            csv.append("BOOK,guest-").append(count).append(',').append(1 + count % 10).append(',')
+                .append(NIGHT.plusDays(count / 10)).append('\n');
+            count++;
+        }
+        StringWriter rejects = new StringWriter();
+        ReservationCsv.ImportResult result = importCsv(csv.toString(), Hotel.BatchMode.BEST_EFFORT, rejects);
+        assertEquals("1,Unterminated quoted field\n", rejects.toString());
+        assertEquals(count, result.applied);
+    }
+}
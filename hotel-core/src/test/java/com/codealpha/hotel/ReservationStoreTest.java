@@ -0,0 +1,156 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReservationStoreTest {
+    private static final int ROOMS = 8;
+    private static final int GUESTS = 12;
+    private static final int NIGHTS = 40;
+
+    private final Map<Integer, Room> rooms = new HashMap<>();
+
+    ReservationStoreTest() {
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.put(i, new Room(i, Room.Category.STANDARD));
+        }
+    }
+
+    // find must return the guest's earliest night in the room, whatever order rows were added, removed,
+    // swapped into holes, archived or reloaded in
+    @Test
+    void findMatchesAScanThroughEveryChange() {
+        ReservationStore store = new ReservationStore(rooms::get);
+        // "room night" -> guest
+        Map<String, String> model = new HashMap<>();
+        Random random = new Random(3);
+        int horizon = 0;
+        for (int step = 0; step < 20000; step++) {
+            String guest = "g" + random.nextInt(GUESTS);
+            int room = 1 + random.nextInt(ROOMS);
+            int night = horizon + random.nextInt(NIGHTS);
+            LocalDate date = LocalDate.ofEpochDay(night);
+            String key = room + " " + night;
+            int pick = random.nextInt(100);
+            if (pick < 55) {
+                if (!model.containsKey(key)) {
+                    store.add(guest, room, date, false);
+                    model.put(key, guest);
+                }
+            } else if (pick < 90) {
+                Reservation res = store.find(guest, room);
+                if (res != null) {
+                    assertEquals(true, store.remove(room, res.getDate()));
+                    model.remove(room + " " + res.getDate().toEpochDay());
+                }
+            } else if (pick < 97) {
+                Reservation res = store.find(guest, room);
+                if (res != null) {
+                    store.setPaid(room, res.getDate(), true);
+                }
+            } else if (pick < 99) {
+                horizon += 3;
+                store.removeBefore(horizon);
+                for (Iterator<String> it = model.keySet().iterator(); it.hasNext(); ) {
+                    if (Integer.parseInt(it.next().split(" ")[1]) < horizon) {
+                        it.remove();
+                    }
+                }
+            } else {
+                store.reload(store.columns());
+            }
+            if (step % 50 == 0) {
+                check(store, model);
+            }
+        }
+        check(store, model);
+    }
+
+    private static void check(ReservationStore store, Map<String, String> model) {
+        assertEquals(model.size(), store.size());
+        for (int g = 0; g < GUESTS; g++) {
+            String guest = "g" + g;
+            for (int room = 1; room <= ROOMS; room++) {
+                Integer earliest = null;
+                for (Map.Entry<String, String> entry : model.entrySet()) {
+                    String[] key = entry.getKey().split(" ");
+                    int night = Integer.parseInt(key[1]);
+                    if (entry.getValue().equals(guest) && Integer.parseInt(key[0]) == room
+                        && (earliest == null || night < earliest)) {
+                        earliest = night;
+                    }
+                }
+                Reservation res = store.find(guest, room);
+                if (earliest == null) {
+                    assertNull(res, guest + " in room " + room);
+                } else {
+                    assertEquals(LocalDate.ofEpochDay(earliest), res.getDate(), guest + " in room " + room);
+                    assertEquals(guest, res.getGuestName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void aBulkLoadIndexesEveryPair() {
+        ReservationStore source = new ReservationStore(rooms::get);
+        for (int i = 0; i < 5000; i++) {
+            int room = 1 + i % ROOMS;
+            source.add("guest-" + (i % 700), room, LocalDate.ofEpochDay(i / ROOMS), false);
+        }
+        ReservationStore loaded = new ReservationStore(rooms::get);
+        loaded.load(source.columns());
+        for (int g = 0; g < 700; g++) {
+            for (int room = 1; room <= ROOMS; room++) {
+                Reservation want = source.find("guest-" + g, room);
+                Reservation got = loaded.find("guest-" + g, room);
+                assertEquals(want == null ? null : want.getDate(), got == null ? null : got.getDate());
+            }
+        }
+    }
+
+    // The guest-name index sorts outside the monitor; bookings and cancellations made meanwhile must
+    // still show up in, or drop out of, its answers
+    @Test
+    void guestIndexBuiltDuringChangesMatchesAScan() throws Exception {
+        ReservationStore store = new ReservationStore(rooms::get);
+        int guests = 100000;
+        for (int i = 0; i < guests; i++) {
+            store.add("old-" + i, 1 + i % ROOMS, LocalDate.ofEpochDay(i / ROOMS), false);
+        }
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; !stop.get() || i < 1000; i++) {
+                store.add("new-" + i, 1 + i % ROOMS, LocalDate.ofEpochDay(guests + i / ROOMS), false);
+                store.remove(1 + i % ROOMS, LocalDate.ofEpochDay(i / ROOMS));
+            }
+        });
+        writer.start();
+        store.guestsStartingWith("", 1);
+        stop.set(true);
+        writer.join();
+
+        for (String prefix : new String[] { "old-", "new-", "NEW-1" }) {
+            TreeSet<String> expected = new TreeSet<>(GuestNameIndex.ORDER);
+            for (Reservation res : store.snapshot()) {
+                if (res.getGuestName().regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    expected.add(res.getGuestName());
+                }
+            }
+            List<String> want = new ArrayList<>(expected);
+            assertEquals(want, store.guestsStartingWith(prefix, Integer.MAX_VALUE), prefix);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.codealpha.hotel;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two JVMs booking, cancelling and paying against one shared data directory at once. Rooms and nights
+// are few, so the processes contend for the same rooms all the time; the journal compacts often and one
+// process archives the first weeks halfway through. Every process logs what it was told succeeded;
+// afterwards the directory must hold exactly that: no night booked twice, no lost or phantom booking,
+// every logged payment paid.
+class SharedDirectoryTest {
+    private static final int PROCESSES = 2;
+    private static final int OPERATIONS = 1500;
+    private static final int ROOMS = 50;
+    private static final int NIGHTS = 60;
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+    @TempDir
+    File dir;
+
+    @TempDir
+    File logs;
+
+    @Test
+    void processesSharingADirectoryLoseAndDoubleNothing() throws Exception {
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 1; i <= ROOMS; i++) {
+            rooms.add(new Room(i, Room.Category.values()[i % 3]));
+        }
+        BinarySnapshot.write(new File(dir, BinarySnapshot.FILE), rooms, Collections.<Reservation>emptyList(), 0);
+
+        // Surefire runs tests from a manifest-only jar; the real classpath is in this property
+        String classPath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        String java = new File(new File(System.getProperty("java.home"), "bin"), "java").getPath();
+        List<Process> workers = new ArrayList<>();
+        for (int id = 0; id < PROCESSES; id++) {
+            workers.add(new ProcessBuilder(java, "-cp", classPath,
+                "-Dhotel.shared.refreshMs=50", "-Dhotel.journal.compactEvery=100", "-Dhotel.metrics=false",
+                SharedDirectoryTest.class.getName(), dir.getPath(), String.valueOf(id), String.valueOf(OPERATIONS))
+                .redirectOutput(new File(logs, id + ".log"))
+                .redirectError(new File(logs, id + ".err"))
+                .start());
+        }
+        for (int id = 0; id < PROCESSES; id++) {
+            Process worker = workers.get(id);
+            if (!worker.waitFor(2, TimeUnit.MINUTES)) {
+                worker.destroyForcibly();
+            }
+            assertEquals(0, worker.exitValue(), "process " + id + ": "
+                + new String(Files.readAllBytes(new File(logs, id + ".err").toPath()), StandardCharsets.UTF_8));
+        }
+
+        // guest -> {room, night, paid}; guest names are unique per booking
+        Map<String, long[]> expected = new HashMap<>();
+        int finished = 0;
+        for (int id = 0; id < PROCESSES; id++) {
+            try (BufferedReader in = Files.newBufferedReader(new File(logs, id + ".log").toPath(), StandardCharsets.UTF_8)) {
+                for (String line; (line = in.readLine()) != null; ) {
+                    String[] f = line.split(" ");
+                    switch (f[0]) {
+                        case "B": expected.put(f[1], new long[] { Integer.parseInt(f[2]), LocalDate.parse(f[3]).toEpochDay(), 0 }); break;
+                        case "C": expected.remove(f[1]); break;
+                        case "P": expected.get(f[1])[2] = 1; break;
+                        case "DONE": finished++; break;
+                        default: break;
+                    }
+                }
+            }
+        }
+        assertEquals(PROCESSES, finished);
+
+        List<String> problems = new ArrayList<>();
+        Set<Long> nights = new HashSet<>();
+        int found = 0;
+        Hotel hotel = new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, true);
+        try (Stream<Reservation> history = hotel.reservationHistory(null, null)) {
+            for (Reservation res : (Iterable<Reservation>) history::iterator) {
+                found++;
+                int room = res.getRoom().getRoomNumber();
+                long night = res.getDate().toEpochDay();
+                if (!nights.add(night * 1000 + room)) {
+                    problems.add("Room " + room + " booked twice on " + res.getDate());
+                }
+                long[] want = expected.get(res.getGuestName());
+                if (want == null || want[0] != room || want[1] != night) {
+                    problems.add("Unexpected reservation " + res);
+                } else if ((want[2] == 1) != res.isPaid()) {
+                    problems.add("Wrong paid flag on " + res);
+                }
+            }
+            assertTrue(hotel.getArchivedReservationCount() > 0, "the rollover archived nothing");
+        } finally {
+            hotel.close();
+        }
+        assertEquals(Collections.<String>emptyList(), problems.subList(0, Math.min(20, problems.size())));
+        assertEquals(expected.size(), found, "reservations logged as made versus found in the directory");
+    }
+
+    // One worker process: logs each change the Hotel reported as done, as "B guest room night",
+    // "C guest room" or "P guest room", then "DONE"
+    public static void main(String[] args) throws IOException {
+        File dir = new File(args[0]);
+        int id = Integer.parseInt(args[1]);
+        int operations = Integer.parseInt(args[2]);
+        Hotel hotel = new Hotel(dir, BookingJournal.Durability.NONE, 0, -1, true);
+        PrintStream out = new PrintStream(System.out, false, "UTF-8");
+        Random random = new Random(id);
+        List<String[]> mine = new ArrayList<>();
+        for (int k = 0; k < operations; k++) {
+            int pick = random.nextInt(100);
+            // Half the calls pass the version they just read: other processes' changes land when the call
+            // catches up, so some of those must be refused as conflicts
+            boolean versioned = random.nextBoolean();
+            try {
+                if (pick < 70 || mine.isEmpty()) {
+                    String guest = "p" + id + "-" + k;
+                    int room = 1 + random.nextInt(ROOMS);
+                    LocalDate night = FIRST_NIGHT.plusDays(random.nextInt(NIGHTS));
+                    if (versioned ? hotel.bookRoom(guest, room, night, hotel.getRoomVersion(room)) : hotel.bookRoom(guest, room, night)) {
+                        out.println("B " + guest + " " + room + " " + night);
+                        mine.add(new String[] { guest, String.valueOf(room) });
+                    }
+                } else {
+                    int index = random.nextInt(mine.size());
+                    String guest = mine.get(index)[0];
+                    int room = Integer.parseInt(mine.get(index)[1]);
+                    long version = versioned ? hotel.getRoomVersion(room) : -1;
+                    if (pick < 85) {
+                        if (hotel.cancelReservation(guest, room, version)) {
+                            out.println("C " + guest + " " + room);
+                            mine.remove(index);
+                        }
+                    } else if (hotel.payReservation(guest, room, version)) {
+                        out.println("P " + guest + " " + room);
+                    }
+                }
+            } catch (ConcurrentModificationException e) {
+                // Refused: another process changed the room since its version was read
+            }
+            if (id == 0 && k == operations / 2) {
+                hotel.archiveBefore(FIRST_NIGHT.plusDays(NIGHTS / 4));
+            }
+        }
+        hotel.close();
+        out.println("DONE");
+        out.flush();
+    }
+}